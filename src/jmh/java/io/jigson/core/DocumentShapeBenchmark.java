@@ -0,0 +1,96 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures queries against wide and deeply nested objects.
+ * <p>
+ * Run with: {@code mvn -Pbenchmark package && java -jar target/benchmarks.jar DocumentShapeBenchmark}
+ *
+ * @author Daniel Zarzeczny
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DocumentShapeBenchmark {
+
+    @Param({"1000", "100000"})
+    private int width;
+
+    @Param({"16", "256"})
+    private int depth;
+
+    private JsonObject wideDocument;
+    private JsonObject deepDocument;
+
+    private CompiledQuery wideFetch;
+    private CompiledQuery wideKeep;
+    private CompiledQuery deepFetch;
+    private CompiledQuery deepKeep;
+
+    @Setup
+    public void setUp() {
+        JigsonConfigHolder.init();
+
+        this.wideDocument = Documents.wide(width);
+        this.deepDocument = Documents.deep(depth);
+
+        this.wideFetch = Jigson.compile("@field" + (width - 1));
+        this.wideKeep = Jigson.compile("#field" + (width - 1));
+        this.deepFetch = Jigson.compile(Documents.deepPath(depth));
+        this.deepKeep = Jigson.compile(Documents.deepPath(depth).replace('@', '#').replace(".value", "(value>=0)"));
+    }
+
+    @Benchmark
+    public JsonElement wideFetch() {
+        return wideFetch.run(wideDocument);
+    }
+
+    @Benchmark
+    public JsonElement wideKeep() {
+        return wideKeep.run(wideDocument);
+    }
+
+    @Benchmark
+    public JsonElement deepFetch() {
+        return deepFetch.run(deepDocument);
+    }
+
+    @Benchmark
+    public JsonElement deepKeep() {
+        return deepKeep.run(deepDocument);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.jigson.json.filter.JsonArrayFilter;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Generates documents benchmarks are run against. Generators are seeded,
+ * so every fork works on exactly the same data.
+ *
+ * @author Daniel Zarzeczny
+ */
+final class Documents {
+
+    private static final long SEED = 20180501L;
+    private static final String[] FIRST_NAMES = {"John", "Sansa", "Arya", "Brandon", "Jon", "Tyrion", "Cersei", "Jaime"};
+    private static final String[] CITIES = {"Winterfell", "Castle Black", "Braavos", "King's Landing", "Dorne"};
+
+    /**
+     * Every n-th element of generated arrays is a primitive, so array filter strategies give different results.
+     */
+    private static final int PRIMITIVE_EVERY = 10;
+
+    private Documents() {
+    }
+
+    /**
+     * @return {@code {"people": [...]}} with given number of people, each having nested address and scores
+     */
+    static JsonObject people(final int size) {
+
+        final Random random = new Random(SEED);
+        final JsonArray people = new JsonArray(size);
+
+        for (int i = 0; i < size; ++i) {
+            if (i % PRIMITIVE_EVERY == PRIMITIVE_EVERY - 1) {
+                people.add("n/a");
+                continue;
+            }
+            final JsonObject address = new JsonObject();
+            address.addProperty("city", CITIES[random.nextInt(CITIES.length)]);
+            address.addProperty("zipCode", String.format("%05d", random.nextInt(100000)));
+
+            final JsonArray scores = new JsonArray(3);
+            scores.add(random.nextInt(100));
+            scores.add(random.nextInt(100));
+            scores.add(random.nextInt(100));
+
+            final JsonObject person = new JsonObject();
+            person.addProperty("id", i);
+            person.addProperty("firstName", FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+            person.addProperty("age", 1 + random.nextInt(90));
+            person.addProperty("active", random.nextBoolean());
+            person.add("address", address);
+            person.add("scores", scores);
+            people.add(person);
+        }
+
+        final JsonObject document = new JsonObject();
+        document.add("people", people);
+        return document;
+    }
+
+    /**
+     * @return {@code {"values": [...]}} mixing integers, longs and decimals
+     */
+    static JsonObject numbers(final int size) {
+
+        final Random random = new Random(SEED);
+        final JsonArray values = new JsonArray(size);
+
+        for (int i = 0; i < size; ++i) {
+            switch (i % 3) {
+                case 0:
+                    values.add(new JsonPrimitive(random.nextInt(1000000)));
+                    break;
+                case 1:
+                    values.add(new JsonPrimitive(Integer.MAX_VALUE + (long) random.nextInt(1000000)));
+                    break;
+                default:
+                    values.add(new JsonPrimitive(BigDecimal.valueOf(random.nextInt(1000000), 3)));
+            }
+        }
+
+        final JsonObject document = new JsonObject();
+        document.add("values", values);
+        return document;
+    }
+
+    /**
+     * @return object having given number of attributes named {@code field0}, {@code field1}, ...
+     */
+    static JsonObject wide(final int width) {
+        final JsonObject document = new JsonObject();
+        for (int i = 0; i < width; ++i) {
+            document.addProperty("field" + i, i);
+        }
+        return document;
+    }
+
+    /**
+     * @return objects nested given number of times in attribute {@code level},
+     * the innermost one has attribute {@code value}
+     */
+    static JsonObject deep(final int depth) {
+        JsonObject current = new JsonObject();
+        current.addProperty("value", depth);
+        for (int i = 0; i < depth; ++i) {
+            final JsonObject parent = new JsonObject();
+            parent.addProperty("depth", depth - i - 1);
+            parent.add("level", current);
+            current = parent;
+        }
+        return current;
+    }
+
+    /**
+     * @return query fetching value of the innermost object of {@link #deep(int)} document
+     */
+    static String deepPath(final int depth) {
+        final StringBuilder path = new StringBuilder("@");
+        for (int i = 0; i < depth; ++i) {
+            path.append("level.");
+        }
+        return path.append("value").toString();
+    }
+
+    /**
+     * @return configuration filtering arrays with given strategy
+     */
+    static JigsonConfig configWith(final JsonArrayFilter.Strategy strategy) {
+        switch (strategy) {
+            case ALL_IF_ANY_MATCHING:
+                return JigsonConfig.newInstance().filters().arrays().allIfAnyMatching();
+            case KEEP_MATCHING_AND_PRIMITIVES:
+                return JigsonConfig.newInstance().filters().arrays().keepMatchingAndPrimitives();
+            case ONLY_MATCHING:
+                return JigsonConfig.newInstance().filters().arrays().onlyMatching();
+            default:
+                throw new IllegalArgumentException("Not supported JsonArrayFilter strategy!");
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.jigson.json.filter.JsonArrayFilter;
+import io.jigson.json.lazy.LazyDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Fetch Mode queries against parsed, streamed and lazily parsed documents.
+ * <p>
+ * Run with: {@code mvn -Pbenchmark package && java -jar target/benchmarks.jar FetchBenchmark}
+ *
+ * @author Daniel Zarzeczny
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FetchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    @Param
+    private JsonArrayFilter.Strategy strategy;
+
+    private JsonObject document;
+    private String rawDocument;
+    private byte[] rawBytes;
+    private LazyDocument lazyDocument;
+
+    private CompiledQuery path;
+    private CompiledQuery index;
+    private CompiledQuery nestedPath;
+    private CompiledQuery slice;
+    private CompiledQuery criterion;
+    private CompiledQuery criteria;
+
+    @Setup
+    public void setUp() {
+        JigsonConfigHolder.set(Documents.configWith(strategy));
+
+        this.document = Documents.people(size);
+        this.rawDocument = document.toString();
+        this.rawBytes = rawDocument.getBytes(StandardCharsets.UTF_8);
+        this.lazyDocument = LazyDocument.parse(rawBytes);
+
+        this.path = Jigson.compile("@people.address.city");
+        this.index = Jigson.compile("@people[" + (size / 2) + "].scores[1]");
+        this.nestedPath = Jigson.compile("@people[" + (size / 2) + "].address.city");
+        this.slice = Jigson.compile("@people[100:1000].firstName");
+        this.criterion = Jigson.compile("@people(age>=40).firstName");
+        this.criteria = Jigson.compile("@people(age>=40&&firstName=Arya||active=false).address(city=Winterfell).zipCode");
+    }
+
+    @Benchmark
+    public JsonElement path() {
+        return path.run(document);
+    }
+
+    @Benchmark
+    public JsonElement index() {
+        return index.run(document);
+    }
+
+    @Benchmark
+    public JsonElement nestedPath() {
+        return nestedPath.run(document);
+    }
+
+    @Benchmark
+    public JsonElement slice() {
+        return slice.run(document);
+    }
+
+    @Benchmark
+    public JsonElement criterion() {
+        return criterion.run(document);
+    }
+
+    @Benchmark
+    public JsonElement criteria() {
+        return criteria.run(document);
+    }
+
+    @Benchmark
+    public JsonElement streamedCriterion() {
+        return criterion.run(new StringReader(rawDocument));
+    }
+
+    @Benchmark
+    public JsonElement lazyIndex() {
+        return index.run(lazyDocument);
+    }
+
+    @Benchmark
+    public JsonElement lazyPath() {
+        return path.run(lazyDocument);
+    }
+
+    @Benchmark
+    public LazyDocument lazyParse() {
+        return LazyDocument.parse(rawBytes);
+    }
+
+    @Benchmark
+    public byte[] rawIndex() {
+        return index.runRaw(rawBytes);
+    }
+}
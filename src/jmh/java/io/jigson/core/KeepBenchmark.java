@@ -0,0 +1,88 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.jigson.json.filter.JsonArrayFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Keep Mode queries, which rebuild filtered parts of the document.
+ * <p>
+ * Run with: {@code mvn -Pbenchmark package && java -jar target/benchmarks.jar KeepBenchmark}
+ *
+ * @author Daniel Zarzeczny
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class KeepBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    @Param
+    private JsonArrayFilter.Strategy strategy;
+
+    private JsonObject document;
+
+    private CompiledQuery path;
+    private CompiledQuery criterion;
+    private CompiledQuery nestedCriterion;
+
+    @Setup
+    public void setUp() {
+        JigsonConfigHolder.set(Documents.configWith(strategy));
+
+        this.document = Documents.people(size);
+
+        this.path = Jigson.compile("#people.address");
+        this.criterion = Jigson.compile("#people(age>=40)");
+        this.nestedCriterion = Jigson.compile("#people(age>=40).address(city=Winterfell)");
+    }
+
+    @Benchmark
+    public JsonElement path() {
+        return path.run(document);
+    }
+
+    @Benchmark
+    public JsonElement criterion() {
+        return criterion.run(document);
+    }
+
+    @Benchmark
+    public JsonElement nestedCriterion() {
+        return nestedCriterion.run(document);
+    }
+}
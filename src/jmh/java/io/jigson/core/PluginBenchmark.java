@@ -0,0 +1,82 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures embedded aggregate functions over numeric-heavy arrays.
+ * <p>
+ * Run with: {@code mvn -Pbenchmark package && java -jar target/benchmarks.jar PluginBenchmark}
+ *
+ * @author Daniel Zarzeczny
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PluginBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"sum", "avg", "min", "max", "stats", "count", "size"})
+    private String plugin;
+
+    private JsonObject numbers;
+    private JsonObject people;
+
+    private CompiledQuery aggregate;
+    private CompiledQuery length;
+
+    @Setup
+    public void setUp() {
+        JigsonConfigHolder.init();
+
+        this.numbers = Documents.numbers(size);
+        this.people = Documents.people(size);
+
+        this.aggregate = Jigson.compile("@values." + plugin + "()");
+        this.length = Jigson.compile("@people.firstName.length()");
+    }
+
+    @Benchmark
+    public JsonElement aggregate() {
+        return aggregate.run(numbers);
+    }
+
+    @Benchmark
+    public JsonElement length() {
+        return length.run(people);
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import io.jigson.core.flow.ExpressionFlow;
+import io.jigson.core.flow.FetchFlow;
+import io.jigson.core.flow.KeepFlow;
+import io.jigson.core.flow.LazyFetchFlow;
+import io.jigson.core.flow.Query;
+import io.jigson.core.flow.QueryPlan;
+import io.jigson.core.flow.QueryProfile;
+import io.jigson.core.flow.SimplePathFlow;
+import io.jigson.core.flow.StreamingFetchFlow;
+import io.jigson.json.lazy.LazyDocument;
+import io.jigson.metrics.JigsonMetrics;
+import io.jigson.pipe.ContextFlow;
+import io.jigson.pipe.JigsonContext;
+import io.jigson.pipe.MappedSource;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Represents a JiGSON query parsed once into an executable plan.
+ * It's immutable, so it might be shared between threads
+ * and run against any number of {@link JsonElement}s without parsing query again.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class CompiledQuery {
+
+    private final String query;
+    private final int mode;
+    private final ContextFlow<JsonElement, ? extends JsonElement> flow;
+    private final StreamingFetchFlow streamingFlow;
+    private final QueryPlan plan;
+    private final LazyFetchFlow lazyFlow;
+    private final SimplePathFlow pathFlow;
+
+    private CompiledQuery(final String query, final int mode, final ContextFlow<JsonElement, ? extends JsonElement> flow) {
+        this(query, mode, flow, null, null);
+    }
+
+    private CompiledQuery(final String query, final int mode, final QueryPlan plan) {
+        this(query, mode, SimplePathFlow.isSimplePath(plan) ? SimplePathFlow.from(plan) : new FetchFlow(plan),
+                new StreamingFetchFlow(plan), plan);
+    }
+
+    private CompiledQuery(final String query,
+                          final int mode,
+                          final ContextFlow<JsonElement, ? extends JsonElement> flow,
+                          final StreamingFetchFlow streamingFlow,
+                          final QueryPlan plan) {
+        this.query = query;
+        this.mode = mode;
+        this.flow = flow;
+        this.streamingFlow = streamingFlow;
+        this.plan = plan;
+        this.lazyFlow = Objects.nonNull(plan) ? new LazyFetchFlow(plan) : null;
+        this.pathFlow = flow instanceof SimplePathFlow ? (SimplePathFlow) flow : null;
+    }
+
+    static CompiledQuery compile(final String rawQuery) {
+        return compile(rawQuery, JigsonConfigHolder.get().metrics().recorder());
+    }
+
+    /**
+     * Compiles given query, reporting time it takes to given metrics.
+     */
+    static CompiledQuery compile(final String rawQuery, final JigsonMetrics metrics) {
+        final String trimmedQuery = Optional.ofNullable(rawQuery).orElse(EMPTY).trim();
+        if (!metrics.isEnabled()) {
+            return compileTrimmed(trimmedQuery);
+        }
+        final long start = System.nanoTime();
+        final CompiledQuery compiledQuery = compileTrimmed(trimmedQuery);
+        metrics.onCompile(trimmedQuery, System.nanoTime() - start);
+        return compiledQuery;
+    }
+
+    private static CompiledQuery compileTrimmed(final String trimmedQuery) {
+
+        if (isNotBlank(trimmedQuery)) {
+
+            final Query query = Query.from(trimmedQuery);
+            final int mode = query.next().getIndex();
+
+            if (Token.AT_SYMBOL == mode) {
+                return new CompiledQuery(trimmedQuery, mode, QueryPlan.from(query));
+            } else if (Token.HASH_SYMBOL == mode) {
+                return new CompiledQuery(trimmedQuery, mode, ContextFlow.fromFlow(new KeepFlow(QueryPlan.ofProperties(query))));
+            } else if (Token.DOLLAR_SYMBOL == mode) {
+                return new CompiledQuery(trimmedQuery, mode, new ExpressionFlow(trimmedQuery));
+            }
+            throw new IllegalPrefixTokenException();
+        }
+        throw new UnexpectedSymbolException();
+    }
+
+    public JsonElement run(final JsonElement jsonElement) {
+        if (Objects.nonNull(pathFlow) && !JigsonConfigHolder.get().metrics().recorder().isEnabled()) {
+            return pathFlow.flow(jsonElement);
+        }
+        return run(jsonElement, JigsonContext.newContext());
+    }
+
+    /**
+     * Runs the query with config of given context, which by default is the one bound to the current thread.
+     * Queries which are plain paths (see {@link SimplePathFlow}) need no config, so unless metrics are recorded,
+     * they're evaluated directly, without any allocation but the result.
+     */
+    public JsonElement run(final JsonElement jsonElement, final JigsonContext context) {
+        if (Objects.nonNull(pathFlow) && !context.config().metrics().recorder().isEnabled()) {
+            return pathFlow.flow(jsonElement);
+        }
+        return execute(context, () -> flow.flow(jsonElement, context));
+    }
+
+    public JsonElement run(final InputStream inputStream) {
+        return run(inputStream, JigsonContext.newContext());
+    }
+
+    /**
+     * Runs the query against UTF-8 encoded JSON document, as {@link #run(Reader, JigsonContext)} does.
+     */
+    public JsonElement run(final InputStream inputStream, final JigsonContext context) {
+        return run(new InputStreamReader(inputStream, StandardCharsets.UTF_8), context);
+    }
+
+    public JsonElement run(final Reader reader) {
+        return run(reader, JigsonContext.newContext());
+    }
+
+    /**
+     * Runs the query against JSON document read from given reader, which is not closed afterwards.
+     * Fetch Mode queries are evaluated while the document is being read, so only matched values
+     * are kept in memory. Other queries need the whole document to be loaded first.
+     */
+    public JsonElement run(final Reader reader, final JigsonContext context) {
+        return execute(context, () -> Objects.nonNull(streamingFlow)
+                ? streamingFlow.flow(new JsonReader(reader), context)
+                : flow.flow(new JsonParser().parse(reader), context));
+    }
+
+    public JsonElement run(final Path path) {
+        return run(path, JigsonContext.newContext());
+    }
+
+    /**
+     * Runs the query against UTF-8 encoded JSON file, which is memory-mapped (see {@link MappedSource})
+     * rather than read into a {@link String} first.
+     */
+    public JsonElement run(final Path path, final JigsonContext context) {
+        try (MappedSource source = MappedSource.map(path)) {
+            return run(source.reader(), context);
+        }
+    }
+
+    public JsonElement run(final LazyDocument document) {
+        return run(document, JigsonContext.newContext());
+    }
+
+    /**
+     * Runs the query against lazily parsed document. Fetch Mode queries navigate its structural index,
+     * materialising only the values they give; other queries need the whole document to be materialised first.
+     */
+    public JsonElement run(final LazyDocument document, final JigsonContext context) {
+        return execute(context, () -> evaluate(document, context));
+    }
+
+    public JsonElement run(final byte[] json) {
+        return run(json, JigsonContext.newContext());
+    }
+
+    /**
+     * Runs the query against UTF-8 encoded JSON document, which is parsed lazily (see {@link LazyDocument}).
+     */
+    public JsonElement run(final byte[] json, final JigsonContext context) {
+        return run(LazyDocument.parse(json), context);
+    }
+
+    public byte[] runRaw(final byte[] json) {
+        return runRaw(LazyDocument.parse(json), JigsonContext.newContext());
+    }
+
+    /**
+     * Runs the query against lazily parsed document, giving UTF-8 encoded JSON text of the result.
+     * When Fetch Mode query just points at a single value (ie. it consists of attributes and array indices only),
+     * its text is copied from the document as it is; otherwise the result is evaluated and serialised.
+     * Thus the text might differ in formatting from the one {@link #run(LazyDocument, JigsonContext)} gives.
+     */
+    public byte[] runRaw(final LazyDocument document, final JigsonContext context) {
+        return execute(context, () -> {
+            final long reference = Objects.nonNull(lazyFlow) ? lazyFlow.locate(document) : LazyDocument.MISSING;
+            if (LazyDocument.MISSING != reference) {
+                return document.raw(reference);
+            }
+            return evaluate(document, context).toString().getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    private JsonElement evaluate(final LazyDocument document, final JigsonContext context) {
+        return Objects.nonNull(lazyFlow) ? lazyFlow.flow(document, context) : flow.flow(document.materialize(), context);
+    }
+
+    /**
+     * Executes the query with config of given context, reporting its time to the metrics of the config.
+     */
+    private <T> T execute(final JigsonContext context, final Supplier<T> execution) {
+
+        final JigsonConfig config = context.config();
+        final JigsonMetrics metrics = config.metrics().recorder();
+        if (!metrics.isEnabled()) {
+            return JigsonConfigHolder.callWith(config, execution);
+        }
+
+        metrics.onQueryStart(query);
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final T result = JigsonConfigHolder.callWith(config, execution);
+            failed = false;
+            return result;
+        } finally {
+            metrics.onQueryEnd(query, System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * @return description of the plan the query has been compiled into, see {@link QueryPlan#explain()}
+     */
+    public String explain() {
+        if (Objects.nonNull(plan)) {
+            return "Fetch Mode: " + query + System.lineSeparator() + plan.explain();
+        } else if (Token.HASH_SYMBOL == mode) {
+            final Query keepQuery = Query.from(query);
+            keepQuery.next();
+            return "Keep Mode: " + query + System.lineSeparator() + QueryPlan.ofProperties(keepQuery).explain();
+        }
+        return "Expression Mode: " + query + " - evaluated as a whole";
+    }
+
+    public QueryProfile profile(final JsonElement jsonElement) {
+        return profile(jsonElement, JigsonContext.newContext());
+    }
+
+    /**
+     * Runs the query as {@link #run(JsonElement, JigsonContext)} does, measuring each step of Fetch Mode query.
+     * Queries of other modes are measured as a whole.
+     */
+    public QueryProfile profile(final JsonElement jsonElement, final JigsonContext context) {
+        return JigsonConfigHolder.callWith(context.config(), () -> Objects.nonNull(plan)
+                ? new FetchFlow(plan).profile(jsonElement, context)
+                : QueryProfile.measure(query, jsonElement, () -> flow.flow(jsonElement, context)));
+    }
+
+    /**
+     * @return plan of Fetch Mode query, empty for other modes
+     */
+    Optional<QueryPlan> getPlan() {
+        return Optional.ofNullable(plan);
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * @return index of prefix token, ie. {@link Token#AT_SYMBOL}, {@link Token#HASH_SYMBOL}
+     * or {@link Token#DOLLAR_SYMBOL}
+     */
+    public int getMode() {
+        return mode;
+    }
+}
@@ -17,41 +17,93 @@
 package io.jigson.core;
 
 import com.google.gson.JsonElement;
-import com.google.gson.JsonPrimitive;
-import io.jigson.core.flow.ExpressionFlow;
-import io.jigson.core.flow.FetchFlow;
-import io.jigson.core.flow.KeepFlow;
-import io.jigson.core.flow.Query;
+import io.jigson.core.flow.QueryProfile;
+import io.jigson.core.flow.QueryResult;
 import io.jigson.json.pipe.JsonPipe;
-import io.jigson.pipe.ContextJoinPipe;
 import io.jigson.pipe.JigsonContext;
-
-import java.util.Optional;
-
-import static org.apache.commons.lang3.StringUtils.EMPTY;
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
-
+import io.jigson.plugin.PluginRegistry;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Represents JiGSON bound to a single {@link JsonElement}. Creating it costs a single allocation,
+ * no plugins are registered and no thread bound config is replaced.
+ * <p>
+ * Instances created with {@link #from(JsonElement)} use globally registered plugins and config bound
+ * to the current thread, unless other config is given with {@link #withConfig(JigsonConfig)}.
+ * Instances created by {@link JigsonEngine#on(JsonElement)} use config and plugins of the engine.
+ *
+ * @author Daniel Zarzeczny
+ */
 public final class Jigson {
 
+    static {
+        PluginsConfig.registerEmbeddedPlugins(PluginRegistry.INSTANCE);
+    }
+
     private final JsonElement jsonElement;
-    private final PluginsConfig pluginsConfig = new PluginsConfig(this);
+    private final PluginRegistry pluginRegistry;
+    private final boolean isEngineBound;
+    private JigsonConfig config;
+    private PluginsConfig pluginsConfig;
 
-    private Jigson(final JsonElement jsonElement) {
+    Jigson(final JsonElement jsonElement, final JigsonConfig config, final PluginRegistry pluginRegistry) {
         this.jsonElement = jsonElement;
-        this.pluginsConfig.registerEmbeddedPlugins();
-        JigsonConfigHolder.init();
+        this.config = config;
+        this.pluginRegistry = pluginRegistry;
+        this.isEngineBound = pluginRegistry != PluginRegistry.INSTANCE;
     }
 
     public static Jigson from(final JsonElement jsonElement) {
-        return new Jigson(jsonElement);
+        return new Jigson(jsonElement, null, PluginRegistry.INSTANCE);
+    }
+
+    /**
+     * Parses given query once, so it might be run many times against different {@link JsonElement}s.
+     *
+     * @param rawQuery JiGSON query, eg. {@code @people(age>20).firstName}
+     * @return immutable, thread-safe representation of the query
+     */
+    public static CompiledQuery compile(final String rawQuery) {
+        return CompiledQuery.compile(rawQuery);
+    }
+
+    /**
+     * Parses given queries once, so they might be run together many times against different {@link JsonElement}s.
+     *
+     * @see QueryBatch
+     */
+    public static QueryBatch compileAll(final List<String> rawQueries) {
+        return QueryBatch.compile(rawQueries);
     }
 
+    /**
+     * @return description of the plan given query is compiled into, see {@link CompiledQuery#explain()}
+     */
+    public static String explain(final String rawQuery) {
+        return CompiledQuery.compile(rawQuery).explain();
+    }
+
+    /**
+     * Makes queries of this instance run with given config, the config bound to the current thread is not changed.
+     */
     public Jigson withConfig(final JigsonConfig config) {
-        JigsonConfigHolder.set(config);
+        this.config = Objects.requireNonNull(config);
         return this;
     }
 
+    /**
+     * @return plugins of this instance, for instances bound to {@link JigsonEngine} they're always scoped
+     */
     public PluginsConfig pluginsConfig() {
+        if (Objects.isNull(pluginsConfig)) {
+            this.pluginsConfig = new PluginsConfig(this, pluginRegistry);
+            if (isEngineBound) {
+                pluginsConfig.scoped();
+            }
+        }
         return pluginsConfig;
     }
 
@@ -60,39 +112,52 @@ public final class Jigson {
     }
 
     public JsonElement parse(final String rawQuery, final JigsonContext context) {
+        final JigsonConfig currentConfig = currentConfig();
+        final QueryCache queryCache = currentConfig.cache().queries();
+        return queryCache.get(rawQuery, currentConfig.metrics().recorder()).run(jsonElement, currentContext(context, currentConfig));
+    }
 
-        final String trimmedQuery = Optional.ofNullable(rawQuery).orElse(EMPTY).trim();
-
-        if (isNotBlank(trimmedQuery)) {
+    public QueryProfile profile(final String rawQuery) {
+        return profile(rawQuery, JigsonContext.newContext());
+    }
 
-            final Query query = Query.from(trimmedQuery);
-            final Token initialToken = query.next();
-            final int initialTokenIndex = initialToken.getIndex();
+    /**
+     * Runs given query as {@link #parse(String, JigsonContext)} does, measuring each of its steps.
+     */
+    public QueryProfile profile(final String rawQuery, final JigsonContext context) {
+        final JigsonConfig currentConfig = currentConfig();
+        final QueryCache queryCache = currentConfig.cache().queries();
+        return queryCache.get(rawQuery, currentConfig.metrics().recorder()).profile(jsonElement, currentContext(context, currentConfig));
+    }
 
-            if (Token.AT_SYMBOL == initialTokenIndex) {
-                return fetch(query, context);
-            } else if (Token.HASH_SYMBOL == initialTokenIndex) {
-                return keep(query);
-            } else if (Token.DOLLAR_SYMBOL == initialTokenIndex) {
-                return expression(trimmedQuery, context);
-            }
-            throw new IllegalPrefixTokenException();
-        }
-        throw new UnexpectedSymbolException();
+    public List<QueryResult> parseAll(final List<String> rawQueries) {
+        return parseAll(rawQueries, JigsonContext.newContext());
     }
 
-    private JsonElement fetch(final Query query, final JigsonContext context) {
-        final FetchFlow flow = new FetchFlow(query);
-        return ContextJoinPipe.from(jsonElement).withContext(context).flush(flow).get();
+    /**
+     * Resolves results of all given queries in a single traversal of the document, so path shared by many of them
+     * is resolved once. Each result is the same as the one given by {@link #parse(String, JigsonContext)},
+     * while query which fails gives its exception as the result, not affecting the other queries.
+     *
+     * @return results of the queries, in order they were given
+     */
+    public List<QueryResult> parseAll(final List<String> rawQueries, final JigsonContext context) {
+        final JigsonConfig currentConfig = currentConfig();
+        final QueryCache queryCache = currentConfig.cache().queries();
+        final List<CompiledQuery> queries = rawQueries.stream().map(rawQuery -> queryCache.get(rawQuery, currentConfig.metrics().recorder())).collect(Collectors.toList());
+        return QueryBatch.from(queries).run(jsonElement, currentContext(context, currentConfig));
     }
 
-    private JsonElement keep(final Query query) {
-        return new KeepFlow(query).flow(jsonElement);
+    private JigsonConfig currentConfig() {
+        return Objects.nonNull(config) ? config : JigsonConfigHolder.get();
     }
 
-    private JsonPrimitive expression(final String query, final JigsonContext context) {
-        final ExpressionFlow flow = new ExpressionFlow(query);
-        return ContextJoinPipe.from(jsonElement).withContext(context).flush(flow).get();
+    /**
+     * @return copy of given context bound to config and plugins of this instance, given context is left untouched
+     */
+    private JigsonContext currentContext(final JigsonContext context, final JigsonConfig currentConfig) {
+        final PluginRegistry currentRegistry = Objects.nonNull(pluginsConfig) ? pluginsConfig.pluginRegistry() : pluginRegistry;
+        return context.copy().withConfig(currentConfig).withPluginRegistry(currentRegistry);
     }
 
     public JsonPipe parseThen(final String rawQuery) {
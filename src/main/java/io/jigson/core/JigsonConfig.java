@@ -18,8 +18,12 @@ package io.jigson.core;
 
 
 import io.jigson.json.filter.JsonArrayFilter;
+import io.jigson.metrics.JigsonMetrics;
 
 import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import static io.jigson.json.filter.JsonArrayFilter.Strategy.*;
 
@@ -28,6 +32,8 @@ public final class JigsonConfig {
 
     private final FiltersConfig filtersConfig = new FiltersConfig();
     private final NumbersConfig numbersConfig = new NumbersConfig();
+    private final CacheConfig cacheConfig = new CacheConfig();
+    private final MetricsConfig metricsConfig = new MetricsConfig();
 
     private JigsonConfig() {
     }
@@ -44,10 +50,36 @@ public final class JigsonConfig {
         return this.numbersConfig;
     }
 
+    public CacheConfig cache() {
+        return this.cacheConfig;
+    }
+
+    public MetricsConfig metrics() {
+        return this.metricsConfig;
+    }
+
     private JigsonConfig config() {
         return this;
     }
 
+    /**
+     * @return independent copy of this config; if this config owns its cache of parsed queries,
+     * the copy owns a new (empty) one as well
+     */
+    JigsonConfig copy() {
+        final JigsonConfig copy = new JigsonConfig();
+        final FiltersConfig.ArraysConfig arrays = filtersConfig.arrays();
+        copy.filters().arrays().filterStrategy = arrays.filterStrategy;
+        copy.filters().arrays().parallelThreshold = arrays.parallelThreshold;
+        copy.filters().arrays().executor = arrays.executor;
+        copy.numbers().precision = numbersConfig.precision;
+        copy.numbers().roundingMode = numbersConfig.roundingMode;
+        copy.cache().capacity = cacheConfig.capacity;
+        copy.cache().isOwned = cacheConfig.isOwned;
+        copy.metrics().recorder = metricsConfig.recorder;
+        return copy;
+    }
+
     public class FiltersConfig {
 
         private final ArraysConfig arraysConfig;
@@ -62,10 +94,16 @@ public final class JigsonConfig {
 
         public class ArraysConfig {
 
+            private static final int SEQUENTIAL = Integer.MAX_VALUE;
+
             private JsonArrayFilter.Strategy filterStrategy;
+            private int parallelThreshold;
+            private Executor executor;
 
             private ArraysConfig() {
                 this.filterStrategy = ALL_IF_ANY_MATCHING;
+                this.parallelThreshold = SEQUENTIAL;
+                this.executor = ForkJoinPool.commonPool();
             }
 
             public JigsonConfig allIfAnyMatching() {
@@ -86,6 +124,43 @@ public final class JigsonConfig {
             public JsonArrayFilter.Strategy strategy() {
                 return this.filterStrategy;
             }
+
+            /**
+             * Makes arrays of at least given size filtered concurrently in {@link ForkJoinPool#commonPool()}.
+             */
+            public JigsonConfig parallel(final int threshold) {
+                return parallel(threshold, ForkJoinPool.commonPool());
+            }
+
+            /**
+             * Makes arrays of at least given size filtered concurrently by given executor.
+             * Order of elements is preserved regardless of the strategy.
+             */
+            public JigsonConfig parallel(final int threshold, final Executor executor) {
+                this.parallelThreshold = Math.abs(threshold);
+                this.executor = Objects.requireNonNull(executor);
+                return config();
+            }
+
+            public JigsonConfig sequential() {
+                this.parallelThreshold = SEQUENTIAL;
+                return config();
+            }
+
+            /**
+             * @return minimal size of array filtered concurrently, {@link Integer#MAX_VALUE} if arrays are filtered sequentially
+             */
+            public int parallelThreshold() {
+                return parallelThreshold;
+            }
+
+            public Executor executor() {
+                return executor;
+            }
+
+            public boolean isParallel(final int arraySize) {
+                return arraySize >= parallelThreshold;
+            }
         }
     }
 
@@ -129,5 +204,95 @@ public final class JigsonConfig {
         }
     }
 
+    public class CacheConfig {
+
+        private static final int DEFAULT_CAPACITY = 512;
+        private int capacity;
+        private boolean isOwned;
+        private volatile QueryCache queries;
+
+        private CacheConfig() {
+            this.capacity = DEFAULT_CAPACITY;
+        }
+
+        /**
+         * @param capacity maximum amount of parsed queries kept in memory, 0 disables caching
+         */
+        public JigsonConfig withCapacity(final int capacity) {
+            this.capacity = capacity;
+            this.isOwned = true;
+            this.queries = null;
+            return config();
+        }
+
+        /**
+         * Makes this config own its cache of parsed queries, even if capacity is the default one.
+         */
+        JigsonConfig owned() {
+            this.isOwned = true;
+            return config();
+        }
+
+        public int capacity() {
+            return Math.abs(capacity);
+        }
+
+        /**
+         * @return cache of parsed queries shared by all configs of default capacity,
+         * or owned by this config (created on first use) once capacity is set or the config belongs to {@link JigsonEngine}
+         */
+        public QueryCache queries() {
+            if (!isOwned) {
+                return SharedQueries.INSTANCE;
+            }
+            QueryCache currentQueries = queries;
+            if (Objects.isNull(currentQueries)) {
+                synchronized (this) {
+                    currentQueries = queries;
+                    if (Objects.isNull(currentQueries)) {
+                        currentQueries = QueryCache.newInstance(capacity());
+                        this.queries = currentQueries;
+                    }
+                }
+            }
+            return currentQueries;
+        }
+    }
+
+    public class MetricsConfig {
+
+        private JigsonMetrics recorder;
+
+        private MetricsConfig() {
+            this.recorder = JigsonMetrics.NOOP;
+        }
+
+        /**
+         * Makes measurements of queries reported to given metrics, see {@link JigsonMetrics}.
+         */
+        public JigsonConfig recordTo(final JigsonMetrics metrics) {
+            this.recorder = Objects.requireNonNull(metrics);
+            return config();
+        }
+
+        public JigsonConfig disabled() {
+            this.recorder = JigsonMetrics.NOOP;
+            return config();
+        }
+
+        /**
+         * @return metrics measurements are reported to, {@link JigsonMetrics#NOOP} by default
+         */
+        public JigsonMetrics recorder() {
+            return recorder;
+        }
+    }
+
+    /**
+     * Holds cache of parsed queries shared by configs of default capacity, created on first use.
+     */
+    private static final class SharedQueries {
 
+        private static final QueryCache INSTANCE = QueryCache.newInstance(CacheConfig.DEFAULT_CAPACITY);
+    }
 }
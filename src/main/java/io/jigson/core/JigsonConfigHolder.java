@@ -1,6 +1,7 @@
 package io.jigson.core;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 
 public class JigsonConfigHolder {
 
@@ -21,6 +22,27 @@ public class JigsonConfigHolder {
         configHolder.set(config);
     }
 
+    /**
+     * Runs given action with given config bound to the current thread, then restores the previous binding.
+     * It lets code without access to {@link io.jigson.pipe.JigsonContext} see the config the query is run with.
+     */
+    public static <T> T callWith(final JigsonConfig config, final Supplier<T> action) {
+        final JigsonConfig previousConfig = configHolder.get();
+        if (previousConfig == config) {
+            return action.get();
+        }
+        configHolder.set(config);
+        try {
+            return action.get();
+        } finally {
+            if (Objects.isNull(previousConfig)) {
+                configHolder.remove();
+            } else {
+                configHolder.set(previousConfig);
+            }
+        }
+    }
+
     public static JigsonConfig get() {
         JigsonConfig config = configHolder.get();
         if (Objects.isNull(config)) {
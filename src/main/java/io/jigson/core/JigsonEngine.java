@@ -0,0 +1,124 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.gson.JsonElement;
+import io.jigson.pipe.JigsonContext;
+import io.jigson.plugin.JsonPlugin;
+import io.jigson.plugin.PluginRegistry;
+
+import java.util.Objects;
+
+/**
+ * Represents immutable JiGSON setup, ie. config and plugins, meant to be built once and shared between threads.
+ * Binding it to a document with {@link #on(JsonElement)} is a trivial allocation:
+ * <pre>{@code
+ * final JigsonEngine engine = JigsonEngine.newInstance(config).withPlugin(plugin);
+ * final JsonElement result = engine.on(jsonElement).parse("@people(age>20).firstName");
+ * }</pre>
+ * Config is passed to queries explicitly, so it doesn't depend on {@link JigsonConfigHolder}.
+ * Plugins registered globally are not visible to an engine, it has embedded plugins and ones given explicitly.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class JigsonEngine {
+
+    private final JigsonConfig config;
+    private final PluginRegistry pluginRegistry;
+
+    private JigsonEngine(final JigsonConfig config, final PluginRegistry pluginRegistry) {
+        this.config = config;
+        this.pluginRegistry = pluginRegistry;
+    }
+
+    public static JigsonEngine newInstance() {
+        return newInstance(JigsonConfig.newInstance());
+    }
+
+    /**
+     * @param config config copied by the engine, so further changes of it don't affect the engine
+     */
+    public static JigsonEngine newInstance(final JigsonConfig config) {
+        final PluginRegistry pluginRegistry = PluginRegistry.newInstance();
+        PluginsConfig.registerEmbeddedPlugins(pluginRegistry);
+        return new JigsonEngine(config.copy().cache().owned(), pluginRegistry);
+    }
+
+    /**
+     * @return engine with the same plugins and copy of given config
+     */
+    public JigsonEngine withConfig(final JigsonConfig config) {
+        return new JigsonEngine(config.copy().cache().owned(), pluginRegistry);
+    }
+
+    /**
+     * @return engine with the same config and given plugin, replacing one of the same key (if any)
+     */
+    public JigsonEngine withPlugin(final JsonPlugin plugin) {
+        final PluginRegistry newRegistry = PluginRegistry.newInstance();
+        newRegistry.register(plugin);
+        pluginRegistry.getPlugins().forEach(newRegistry::register);
+        return new JigsonEngine(config, newRegistry);
+    }
+
+    /**
+     * @return engine with the same config and without plugin of given key
+     */
+    public JigsonEngine withoutPlugin(final String key) {
+        final PluginRegistry newRegistry = PluginRegistry.newInstance();
+        pluginRegistry.getPlugins().forEach(newRegistry::register);
+        newRegistry.deregister(key);
+        return new JigsonEngine(config, newRegistry);
+    }
+
+    public Jigson on(final JsonElement jsonElement) {
+        return new Jigson(jsonElement, config, pluginRegistry);
+    }
+
+    /**
+     * @return query parsed once, served from the cache configured for this engine
+     */
+    public CompiledQuery compile(final String rawQuery) {
+        return queries().get(rawQuery, config.metrics().recorder());
+    }
+
+    /**
+     * @return cache of parsed queries owned by this engine, shared by engines derived with {@link #withPlugin}
+     */
+    public QueryCache queries() {
+        return config.cache().queries();
+    }
+
+    /**
+     * @return runner of given query over many documents, with config and plugins of this engine
+     */
+    public QueryRunner runner(final String rawQuery) {
+        final JigsonContext context = JigsonContext.newContext().withConfig(config).withPluginRegistry(pluginRegistry);
+        return QueryRunner.of(compile(rawQuery), context);
+    }
+
+    /**
+     * @return copy of config of this engine
+     */
+    public JigsonConfig config() {
+        return config.copy();
+    }
+
+    public boolean hasPlugin(final String key) {
+        return Objects.nonNull(pluginRegistry.get(key));
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Represents a hand-written, single pass replacement of {@link Tokenizer}.
+ * It scans expression character by character and emits {@link Token}s as offsets
+ * into the original expression, so no intermediate strings are created.
+ * Lexer holds no state, thus its instances are shared between threads.
+ * <p>
+ * Each lexer tries token types in the same order as its {@link TokenizerFactory} counterpart,
+ * so both of them produce exactly the same tokens.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class Lexer {
+
+    private static final int NO_MATCH = -1;
+    private static final char SPACE = ' ';
+
+    public static final Lexer QUERY = new Lexer(
+            Token.DOLLAR_SYMBOL, Token.AT_SYMBOL, Token.DOT_SYMBOL, Token.QUESTION_MARK, Token.HASH_SYMBOL,
+            Token.COLON, Token.QUOTE, Token.VARIABLE, Token.NUMBER,
+            Token.OPEN_BRACKET, Token.CLOSE_BRACKET, Token.OPEN_SQ_BRACKET, Token.CLOSE_SQ_BRACKET,
+            Token.OPEN_CURLY_BRACE, Token.CLOSE_CURLY_BRACE, Token.THEN,
+            Token.EQ, Token.NEQ, Token.GTET, Token.GT, Token.LTET, Token.LT, Token.AND, Token.OR);
+
+    public static final Lexer CRITERIA = new Lexer(
+            Token.VARIABLE, Token.NUMBER,
+            Token.EQ, Token.NEQ, Token.GTET, Token.GT, Token.LTET, Token.LT, Token.AND, Token.OR);
+
+    public static final Lexer SLICE = new Lexer(Token.NUMBER, Token.COLON);
+
+    public static final Lexer COMPARISON = new Lexer(
+            Token.EQ, Token.NEQ, Token.GTET, Token.GT, Token.LTET, Token.LT);
+
+    private final int[] tokenTypes;
+
+    private Lexer(final int... tokenTypes) {
+        this.tokenTypes = tokenTypes;
+    }
+
+    public List<Token> tokenize(final String expression) {
+
+        if (isBlank(expression)) {
+            throw new UnexpectedSymbolException();
+        }
+
+        final List<Token> tokens = new ArrayList<>();
+        final int length = expression.length();
+        int position = 0;
+
+        while (position < length) {
+            int tokenType = NO_MATCH;
+            int end = NO_MATCH;
+            for (final int candidate : tokenTypes) {
+                end = match(candidate, expression, position);
+                if (end != NO_MATCH) {
+                    tokenType = candidate;
+                    break;
+                }
+            }
+            if (tokenType == NO_MATCH) {
+                break;
+            }
+            tokens.add(Token.from(tokenType, expression, position, end));
+            position = skipWhitespaces(expression, end);
+        }
+        if (tokens.isEmpty()) {
+            throw new UnexpectedSymbolException();
+        }
+        return tokens;
+    }
+
+    private static int skipWhitespaces(final String expression, final int position) {
+        int current = position;
+        while (current < expression.length() && expression.charAt(current) <= SPACE) {
+            current++;
+        }
+        return current;
+    }
+
+    /**
+     * @return offset right after the token of given type starting at position
+     * or {@link #NO_MATCH} when there's no such token
+     */
+    private static int match(final int tokenType, final String expression, final int position) {
+        switch (tokenType) {
+            case Token.DOLLAR_SYMBOL:
+                return matchSymbol(expression, position, '$');
+            case Token.AT_SYMBOL:
+                return matchSymbol(expression, position, '@');
+            case Token.QUESTION_MARK:
+                return matchSymbol(expression, position, '?');
+            case Token.HASH_SYMBOL:
+                return matchSymbol(expression, position, '#');
+            case Token.DOT_SYMBOL:
+                return matchSymbol(expression, position, '.');
+            case Token.QUOTE:
+                return matchSymbol(expression, position, '"');
+            case Token.COLON:
+                return matchSymbol(expression, position, ':');
+            case Token.VARIABLE:
+                return matchVariable(expression, position);
+            case Token.NUMBER:
+                return matchNumber(expression, position);
+            case Token.OPEN_BRACKET:
+                return matchSymbol(expression, position, '(');
+            case Token.CLOSE_BRACKET:
+                return matchSymbol(expression, position, ')');
+            case Token.OPEN_SQ_BRACKET:
+                return matchSymbol(expression, position, '[');
+            case Token.CLOSE_SQ_BRACKET:
+                return matchSymbol(expression, position, ']');
+            case Token.OPEN_CURLY_BRACE:
+                return matchSymbol(expression, position, '{');
+            case Token.CLOSE_CURLY_BRACE:
+                return matchSymbol(expression, position, '}');
+            case Token.EQ:
+                return matchSymbol(expression, position, '=');
+            case Token.NEQ:
+                return matchSymbols(expression, position, '!', '=');
+            case Token.LTET:
+                return matchSymbols(expression, position, '<', '=');
+            case Token.LT:
+                return matchSymbol(expression, position, '<');
+            case Token.GTET:
+                return matchSymbols(expression, position, '>', '=');
+            case Token.GT:
+                return matchSymbol(expression, position, '>');
+            case Token.AND:
+                return matchSymbols(expression, position, '&', '&');
+            case Token.OR:
+                return matchSymbols(expression, position, '|', '|');
+            case Token.THEN:
+                return matchSymbols(expression, position, '=', '>');
+            default:
+                throw new IllegalArgumentException("Unknown token: " + tokenType + "!");
+        }
+    }
+
+    private static int matchSymbol(final String expression, final int position, final char symbol) {
+        return expression.charAt(position) == symbol ? position + 1 : NO_MATCH;
+    }
+
+    private static int matchSymbols(final String expression, final int position, final char first, final char second) {
+        final boolean match =
+                position + 1 < expression.length()
+                        && expression.charAt(position) == first
+                        && expression.charAt(position + 1) == second;
+        return match ? position + 2 : NO_MATCH;
+    }
+
+    private static int matchVariable(final String expression, final int position) {
+        if (!isLetter(expression.charAt(position))) {
+            return NO_MATCH;
+        }
+        int current = position + 1;
+        while (current < expression.length() && isVariablePart(expression.charAt(current))) {
+            current++;
+        }
+        return current;
+    }
+
+    private static int matchNumber(final String expression, final int position) {
+        int current = position;
+        while (current < expression.length() && isDigit(expression.charAt(current))) {
+            current++;
+        }
+        return current > position ? current : NO_MATCH;
+    }
+
+    private static boolean isLetter(final char character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
+    }
+
+    private static boolean isDigit(final char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    private static boolean isVariablePart(final char character) {
+        return isLetter(character) || isDigit(character) || character == '_';
+    }
+}
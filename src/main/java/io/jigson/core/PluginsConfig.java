@@ -7,21 +7,39 @@ import io.jigson.plugin.PluginRegistry;
 public final class PluginsConfig {
 
     private final Jigson jigson;
-    private final PluginRegistry pluginRegistry;
+    private PluginRegistry pluginRegistry;
+    private boolean isScoped;
 
-    PluginsConfig(final Jigson jigson) {
+    PluginsConfig(final Jigson jigson, final PluginRegistry pluginRegistry) {
         this.jigson = jigson;
-        this.pluginRegistry = PluginRegistry.INSTANCE;
+        this.pluginRegistry = pluginRegistry;
     }
 
-    void registerEmbeddedPlugins() {
-        registerPlugin(LengthPlugin.INSTANCE);
-        registerPlugin(CountPlugin.INSTANCE);
-        registerPlugin(SizePlugin.INSTANCE);
-        registerPlugin(SumPlugin.INSTANCE);
-        registerPlugin(MinPlugin.INSTANCE);
-        registerPlugin(MaxPlugin.INSTANCE);
-        registerPlugin(AveragePlugin.INSTANCE);
+    static void registerEmbeddedPlugins(final PluginRegistry pluginRegistry) {
+        pluginRegistry.register(LengthPlugin.INSTANCE);
+        pluginRegistry.register(CountPlugin.INSTANCE);
+        pluginRegistry.register(SizePlugin.INSTANCE);
+        pluginRegistry.register(SumPlugin.INSTANCE);
+        pluginRegistry.register(MinPlugin.INSTANCE);
+        pluginRegistry.register(MaxPlugin.INSTANCE);
+        pluginRegistry.register(AveragePlugin.INSTANCE);
+        pluginRegistry.register(StatsPlugin.INSTANCE);
+    }
+
+    /**
+     * Makes plugins (de)registered from now on visible to queries of this {@link Jigson} only.
+     * Plugins available so far remain available.
+     */
+    public PluginsConfig scoped() {
+        if (!isScoped) {
+            this.pluginRegistry = PluginRegistry.layeredOver(pluginRegistry);
+            this.isScoped = true;
+        }
+        return this;
+    }
+
+    PluginRegistry pluginRegistry() {
+        return pluginRegistry;
     }
 
     public PluginsConfig registerPlugin(final JsonPlugin plugin) {
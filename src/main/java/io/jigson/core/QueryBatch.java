@@ -0,0 +1,130 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonElement;
+import io.jigson.core.flow.BatchFetchFlow;
+import io.jigson.core.flow.QueryPlan;
+import io.jigson.core.flow.QueryResult;
+import io.jigson.metrics.JigsonMetrics;
+import io.jigson.pipe.JigsonContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Represents many {@link CompiledQuery}s run together against the same {@link JsonElement}.
+ * Fetch Mode queries are evaluated in a single, shared traversal (see {@link BatchFetchFlow}), so
+ * a common prefix like {@code @order.customer} is resolved once, no matter how many queries start with it.
+ * Other queries are run one by one. Failure of a query doesn't affect the others, it's given as its {@link QueryResult}.
+ * Each query is reported to {@link JigsonMetrics} of the config, as if it was run alone.
+ * It's immutable, so it might be shared between threads.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class QueryBatch {
+
+    private final List<CompiledQuery> queries;
+    private final BatchFetchFlow fetchFlow;
+    private final int[] fetchIndices;
+    private final int fetchCount;
+
+    private QueryBatch(final List<CompiledQuery> queries) {
+
+        final List<QueryPlan> plans = new ArrayList<>();
+        final int[] indices = new int[queries.size()];
+        for (int i = 0; i < queries.size(); ++i) {
+            final Optional<QueryPlan> plan = queries.get(i).getPlan();
+            indices[i] = plan.isPresent() ? plans.size() : -1;
+            plan.ifPresent(plans::add);
+        }
+        this.queries = queries;
+        this.fetchFlow = new BatchFetchFlow(plans);
+        this.fetchIndices = indices;
+        this.fetchCount = plans.size();
+    }
+
+    /**
+     * Compiles each of given queries, as {@link Jigson#compile(String)} does.
+     */
+    static QueryBatch compile(final List<String> rawQueries) {
+        final ImmutableList.Builder<CompiledQuery> queries = ImmutableList.builder();
+        rawQueries.forEach(rawQuery -> queries.add(CompiledQuery.compile(rawQuery)));
+        return new QueryBatch(queries.build());
+    }
+
+    static QueryBatch from(final List<CompiledQuery> queries) {
+        return new QueryBatch(ImmutableList.copyOf(queries));
+    }
+
+    public List<QueryResult> run(final JsonElement jsonElement) {
+        return run(jsonElement, JigsonContext.newContext());
+    }
+
+    /**
+     * Runs all the queries with config of given context, which by default is the one bound to the current thread.
+     *
+     * @return results of the queries, in order they were given
+     */
+    public List<QueryResult> run(final JsonElement jsonElement, final JigsonContext context) {
+        final JigsonConfig config = context.config();
+        final JigsonMetrics metrics = config.metrics().recorder();
+        return JigsonConfigHolder.callWith(config, () -> {
+            final long[] nanos = metrics.isEnabled() ? new long[fetchCount] : null;
+            if (metrics.isEnabled()) {
+                forEachFetchQuery((query, fetchIndex) -> metrics.onQueryStart(query.getQuery()));
+            }
+            final List<QueryResult> fetched = fetchFlow.flow(jsonElement, context, nanos);
+            if (metrics.isEnabled()) {
+                forEachFetchQuery((query, fetchIndex) ->
+                        metrics.onQueryEnd(query.getQuery(), nanos[fetchIndex], fetched.get(fetchIndex).isFailed()));
+            }
+            final QueryResult[] results = new QueryResult[queries.size()];
+            for (int i = 0; i < results.length; ++i) {
+                results[i] = fetchIndices[i] >= 0 ? fetched.get(fetchIndices[i]) : run(queries.get(i), jsonElement, context);
+            }
+            return Arrays.asList(results);
+        });
+    }
+
+    private void forEachFetchQuery(final ObjIntConsumer<CompiledQuery> action) {
+        for (int i = 0; i < fetchIndices.length; ++i) {
+            if (fetchIndices[i] >= 0) {
+                action.accept(queries.get(i), fetchIndices[i]);
+            }
+        }
+    }
+
+    /**
+     * Runs query which can't be part of the shared traversal, it reports itself to the metrics.
+     */
+    private static QueryResult run(final CompiledQuery query, final JsonElement jsonElement, final JigsonContext context) {
+        try {
+            return QueryResult.of(query.run(jsonElement, context));
+        } catch (final RuntimeException e) {
+            return QueryResult.failed(e);
+        }
+    }
+
+    public List<CompiledQuery> getQueries() {
+        return queries;
+    }
+}
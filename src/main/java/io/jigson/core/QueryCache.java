@@ -0,0 +1,103 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.jigson.metrics.JigsonMetrics;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+
+/**
+ * Represents a size-bounded cache of {@link CompiledQuery}s, keyed by trimmed query text.
+ * When capacity is exceeded, the least recently used queries are evicted first.
+ * It's safe to use from many threads at once.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class QueryCache {
+
+    private final int capacity;
+    private final Cache<String, CompiledQuery> cache;
+
+    private QueryCache(final int capacity) {
+        this.capacity = capacity;
+        this.cache =
+                CacheBuilder
+                        .newBuilder()
+                        .maximumSize(capacity)
+                        .recordStats()
+                        .build();
+    }
+
+    public static QueryCache newInstance(final int capacity) {
+        return new QueryCache(capacity);
+    }
+
+    /**
+     * Gives compiled form of given query, compiling it only when it's not cached yet.
+     * Queries which can't be compiled are not cached.
+     */
+    public CompiledQuery get(final String rawQuery) {
+        return get(rawQuery, JigsonConfigHolder.get().metrics().recorder());
+    }
+
+    /**
+     * Gives compiled form of given query as {@link #get(String)} does, reporting cache hit or miss
+     * (and compilation time) to given metrics.
+     */
+    public CompiledQuery get(final String rawQuery, final JigsonMetrics metrics) {
+
+        final String trimmedQuery = Optional.ofNullable(rawQuery).orElse(EMPTY).trim();
+        final CompiledQuery cachedQuery = cache.getIfPresent(trimmedQuery);
+        if (Objects.nonNull(cachedQuery)) {
+            if (metrics.isEnabled()) {
+                metrics.onCacheHit(trimmedQuery);
+            }
+            return cachedQuery;
+        }
+        if (metrics.isEnabled()) {
+            metrics.onCacheMiss(trimmedQuery);
+        }
+        final CompiledQuery compiledQuery = CompiledQuery.compile(trimmedQuery, metrics);
+        cache.put(trimmedQuery, compiledQuery);
+        return compiledQuery;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * @return snapshot of hit, miss and eviction counters
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.gson.JsonElement;
+import io.jigson.pipe.JigsonContext;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Represents a single {@link CompiledQuery} run against a sequence of {@link JsonElement}s, eg. documents
+ * replayed from a log, so per document there's nothing but the evaluation of the query.
+ * <pre>{@code
+ * final QueryRunner runner = QueryRunner.of(Jigson.compile("@order.total")).parallel(1000, 8);
+ * final Stream<JsonElement> totals = runner.run(documents);
+ * }</pre>
+ * By default documents are evaluated one by one on the calling thread. Once {@link #parallel(int, int)} is set,
+ * documents are evaluated in chunks on worker threads, while results are still given in order of documents.
+ * Either way documents are pulled lazily, so in parallel mode at most {@code chunkSize * maxChunksInFlight}
+ * of them are read ahead of the consumer.
+ * <p>
+ * Given context is copied on the calling thread once the run starts, capturing its config and plugins,
+ * so the context itself is never modified.
+ * Runner is immutable, so it might be shared between threads.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class QueryRunner {
+
+    private static final int SEQUENTIAL = 0;
+
+    private final CompiledQuery query;
+    private final JigsonContext context;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final Executor executor;
+
+    private QueryRunner(final CompiledQuery query,
+                        final JigsonContext context,
+                        final int chunkSize,
+                        final int maxChunksInFlight,
+                        final Executor executor) {
+        this.query = query;
+        this.context = context;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.executor = executor;
+    }
+
+    public static QueryRunner of(final CompiledQuery query) {
+        return of(query, JigsonContext.newContext());
+    }
+
+    /**
+     * @param context context copied once a run starts; in parallel mode each chunk of documents is evaluated with its own copy
+     */
+    public static QueryRunner of(final CompiledQuery query, final JigsonContext context) {
+        return new QueryRunner(Objects.requireNonNull(query), Objects.requireNonNull(context), SEQUENTIAL, SEQUENTIAL, null);
+    }
+
+    /**
+     * Makes documents evaluated concurrently in {@link ForkJoinPool#commonPool()}.
+     *
+     * @param chunkSize         number of documents evaluated by a single task
+     * @param maxChunksInFlight maximum number of chunks read ahead of the consumer
+     */
+    public QueryRunner parallel(final int chunkSize, final int maxChunksInFlight) {
+        return parallel(chunkSize, maxChunksInFlight, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Makes documents evaluated concurrently by given executor.
+     *
+     * @param chunkSize         number of documents evaluated by a single task
+     * @param maxChunksInFlight maximum number of chunks read ahead of the consumer
+     */
+    public QueryRunner parallel(final int chunkSize, final int maxChunksInFlight, final Executor executor) {
+        if (chunkSize < 1 || maxChunksInFlight < 1) {
+            throw new IllegalArgumentException("Chunk size and number of chunks in flight must be positive!");
+        }
+        return new QueryRunner(query, context, chunkSize, maxChunksInFlight, Objects.requireNonNull(executor));
+    }
+
+    /**
+     * Makes documents evaluated one by one on the thread consuming results.
+     */
+    public QueryRunner sequential() {
+        return new QueryRunner(query, context, SEQUENTIAL, SEQUENTIAL, null);
+    }
+
+    public boolean isParallel() {
+        return chunkSize != SEQUENTIAL;
+    }
+
+    /**
+     * @return lazy stream of results, in order of given documents; closing it closes given stream
+     */
+    public Stream<JsonElement> run(final Stream<? extends JsonElement> documents) {
+        final Iterator<JsonElement> results = run(documents.map(JsonElement.class::cast).iterator());
+        final Spliterator<JsonElement> spliterator = Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).onClose(documents::close);
+    }
+
+    /**
+     * @return lazy iterator of results, in order of given documents
+     */
+    public Iterator<JsonElement> run(final Iterator<? extends JsonElement> documents) {
+        final JigsonContext boundContext = context.copy();
+        if (isParallel()) {
+            return new ParallelIterator(documents, boundContext);
+        }
+        return new Iterator<JsonElement>() {
+            @Override
+            public boolean hasNext() {
+                return documents.hasNext();
+            }
+
+            @Override
+            public JsonElement next() {
+                return query.run(documents.next(), boundContext);
+            }
+        };
+    }
+
+    /**
+     * Evaluates chunks of documents in the executor, keeping at most {@link #maxChunksInFlight} of them
+     * submitted ahead of the one being consumed.
+     */
+    private final class ParallelIterator implements Iterator<JsonElement> {
+
+        private final Iterator<? extends JsonElement> documents;
+        private final JigsonContext boundContext;
+        private final Queue<CompletableFuture<List<JsonElement>>> chunks = new ArrayDeque<>();
+        private Iterator<JsonElement> currentChunk = Collections.emptyIterator();
+
+        private ParallelIterator(final Iterator<? extends JsonElement> documents, final JigsonContext boundContext) {
+            this.documents = documents;
+            this.boundContext = boundContext;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!currentChunk.hasNext()) {
+                fill();
+                if (chunks.isEmpty()) {
+                    return false;
+                }
+                currentChunk = join(chunks.poll()).iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public JsonElement next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentChunk.next();
+        }
+
+        private void fill() {
+            while (chunks.size() < maxChunksInFlight && documents.hasNext()) {
+                final List<JsonElement> chunk = new ArrayList<>(chunkSize);
+                while (chunk.size() < chunkSize && documents.hasNext()) {
+                    chunk.add(documents.next());
+                }
+                // copied on the consuming thread, so each chunk has its own context
+                final JigsonContext chunkContext = boundContext.copy();
+                chunks.add(CompletableFuture.supplyAsync(() -> evaluate(chunk, chunkContext), executor));
+            }
+        }
+
+        private List<JsonElement> evaluate(final List<JsonElement> chunk, final JigsonContext chunkContext) {
+            final List<JsonElement> results = new ArrayList<>(chunk.size());
+            for (final JsonElement document : chunk) {
+                results.add(query.run(document, chunkContext));
+            }
+            return results;
+        }
+
+        private List<JsonElement> join(final CompletableFuture<List<JsonElement>> chunk) {
+            try {
+                return chunk.join();
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -48,15 +48,28 @@ public class Token implements Serializable {
     public static final int THEN = 24;
 
     private final int index;
-    private final String token;
+    private final String source;
+    private final int start;
+    private final int end;
+    private String token;
 
-    private Token(final int index, final String token) {
+    private Token(final int index, final String source, final int start, final int end) {
         this.index = index;
-        this.token = token;
+        this.source = source;
+        this.start = start;
+        this.end = end;
     }
 
     public static Token from(final int index, final String token) {
-        return new Token(index, token);
+        return new Token(index, token, 0, token.length());
+    }
+
+    /**
+     * Creates token spanning characters of source between given offsets.
+     * Text of the token is not copied from the source until it's requested.
+     */
+    public static Token from(final int index, final String source, final int start, final int end) {
+        return new Token(index, source, start, end);
     }
 
     public int getIndex() {
@@ -64,6 +77,19 @@ public class Token implements Serializable {
     }
 
     public String getToken() {
-        return token;
+        String text = token;
+        if (text == null) {
+            text = source.substring(start, end);
+            token = text;
+        }
+        return text;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
     }
 }
@@ -0,0 +1,183 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonElement;
+import io.jigson.pipe.ContextFlow;
+import io.jigson.pipe.JigsonContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Represents a flow evaluating many Fetch Mode queries against one {@link JsonElement} at once.
+ * Plans of the queries are merged into a trie of steps, so each step shared by a prefix of several queries
+ * (eg. {@code order.customer} of {@code @order.customer.name} and {@code @order.customer.address})
+ * is executed once and its result is passed down to the remaining steps of all of them.
+ * <p>
+ * Result of each query is the same as one given by {@link FetchFlow}, however results of queries
+ * sharing a prefix might share elements, so they shouldn't be modified.
+ * Step which fails affects only queries it's part of, others are evaluated as usual.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class BatchFetchFlow implements ContextFlow<JsonElement, List<QueryResult>> {
+
+    private final Node root;
+    private final int size;
+
+    public BatchFetchFlow(final List<QueryPlan> plans) {
+        final NodeBuilder rootBuilder = new NodeBuilder(null);
+        for (int i = 0; i < plans.size(); ++i) {
+            NodeBuilder current = rootBuilder;
+            for (final Step step : plans.get(i).getSteps()) {
+                current = current.child(step);
+            }
+            current.queryIndices.add(i);
+        }
+        this.root = rootBuilder.build();
+        this.size = plans.size();
+    }
+
+    @Override
+    public List<QueryResult> flow(final JsonElement jsonElement) {
+        return flow(jsonElement, JigsonContext.newContext());
+    }
+
+    /**
+     * @return results of the queries, in order of their plans
+     */
+    @Override
+    public List<QueryResult> flow(final JsonElement jsonElement, final JigsonContext context) {
+        return flow(jsonElement, context, null);
+    }
+
+    /**
+     * Evaluates the queries as {@link #flow(JsonElement, JigsonContext)} does, measuring time of each of them.
+     *
+     * @param nanos array filled with nanoseconds spent on steps of each query, so time of a shared step
+     *              is counted for every query it's part of; null if nothing should be measured
+     * @return results of the queries, in order of their plans
+     */
+    public List<QueryResult> flow(final JsonElement jsonElement, final JigsonContext context, final long[] nanos) {
+        final QueryResult[] results = new QueryResult[size];
+        evaluate(root, jsonElement, 0L, context, results, nanos);
+        return Arrays.asList(results);
+    }
+
+    private static void evaluate(final Node node,
+                                 final JsonElement currentElement,
+                                 final long elapsedNanos,
+                                 final JigsonContext context,
+                                 final QueryResult[] results,
+                                 final long[] nanos) {
+        complete(node, QueryResult.of(currentElement), elapsedNanos, results, nanos);
+        for (final Node child : node.children) {
+            final boolean isTimed = Objects.nonNull(nanos);
+            final long start = isTimed ? System.nanoTime() : 0L;
+            final JsonElement childElement;
+            try {
+                childElement = FetchFlow.execute(currentElement, child.step, context);
+            } catch (final RuntimeException e) {
+                fail(child, QueryResult.failed(e), isTimed ? elapsedNanos + System.nanoTime() - start : 0L, results, nanos);
+                continue;
+            }
+            evaluate(child, childElement, isTimed ? elapsedNanos + System.nanoTime() - start : 0L, context, results, nanos);
+        }
+    }
+
+    /**
+     * Gives the same failed result to all queries of given subtree.
+     */
+    private static void fail(final Node node,
+                             final QueryResult failure,
+                             final long elapsedNanos,
+                             final QueryResult[] results,
+                             final long[] nanos) {
+        complete(node, failure, elapsedNanos, results, nanos);
+        for (final Node child : node.children) {
+            fail(child, failure, elapsedNanos, results, nanos);
+        }
+    }
+
+    private static void complete(final Node node,
+                                 final QueryResult result,
+                                 final long elapsedNanos,
+                                 final QueryResult[] results,
+                                 final long[] nanos) {
+        for (final int queryIndex : node.queryIndices) {
+            results[queryIndex] = result;
+            if (Objects.nonNull(nanos)) {
+                nanos[queryIndex] = elapsedNanos;
+            }
+        }
+    }
+
+    /**
+     * @return number of steps executed per evaluation, at most total number of steps of all the queries
+     */
+    public int countSteps() {
+        return countSteps(root) - 1;
+    }
+
+    private static int countSteps(final Node node) {
+        int count = 1;
+        for (final Node child : node.children) {
+            count += countSteps(child);
+        }
+        return count;
+    }
+
+    private static final class Node {
+
+        private final Step step;
+        private final int[] queryIndices;
+        private final List<Node> children;
+
+        private Node(final Step step, final int[] queryIndices, final List<Node> children) {
+            this.step = step;
+            this.queryIndices = queryIndices;
+            this.children = children;
+        }
+    }
+
+    private static final class NodeBuilder {
+
+        private final Step step;
+        private final List<Integer> queryIndices = new ArrayList<>();
+        private final Map<String, NodeBuilder> children = new LinkedHashMap<>();
+
+        private NodeBuilder(final Step step) {
+            this.step = step;
+        }
+
+        private NodeBuilder child(final Step childStep) {
+            return children.computeIfAbsent(childStep.getPath(), path -> new NodeBuilder(childStep));
+        }
+
+        private Node build() {
+            final ImmutableList.Builder<Node> builtChildren = ImmutableList.builder();
+            children.values().forEach(child -> builtChildren.add(child.build()));
+            return new Node(step, queryIndices.stream().mapToInt(Integer::intValue).toArray(), builtChildren.build());
+        }
+    }
+}
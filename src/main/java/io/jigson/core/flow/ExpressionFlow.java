@@ -19,11 +19,10 @@ import com.google.common.collect.Lists;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonPrimitive;
 import io.jigson.core.IllegalQueryException;
+import io.jigson.core.Lexer;
 import io.jigson.core.Token;
-import io.jigson.core.TokenizerFactory;
 import io.jigson.expression.Operators;
-import io.jigson.expression.predicate.Predicate;
-import io.jigson.expression.predicate.PredicateFactory;
+import io.jigson.expression.predicate.ComparisonPredicate;
 import io.jigson.pipe.ContextFlow;
 import io.jigson.pipe.JigsonContext;
 import org.apache.commons.lang3.StringUtils;
@@ -35,6 +34,7 @@ import java.util.Set;
 /**
  * Represents a flow responsible for evaluating result of comparison expression,
  * where the left operand is a query but the right operand is a raw numeric value.
+ * Both operands and the operator are resolved once, when the flow is created.
  *
  * @author Daniel Zarzeczny
  */
@@ -43,10 +43,19 @@ public class ExpressionFlow implements ContextFlow<JsonElement, JsonPrimitive> {
     private static final Set<String> COMPARISON_OPERATORS = Operators.comparisonOperators();
     private static final int INDEX_ONE = 1;
 
-    private final String trimmedQuery;
+    private final ComparisonPredicate comparison;
+    private final FetchFlow leftOperandFlow;
 
     public ExpressionFlow(final String trimmedQuery) {
-        this.trimmedQuery = trimmedQuery;
+
+        final String comparisonOperator = resolveComparisonOperator(trimmedQuery).orElseThrow(IllegalQueryException::new);
+
+        final int startOperatorIndex = trimmedQuery.lastIndexOf(comparisonOperator);
+        final int endOperatorIndex = startOperatorIndex + comparisonOperator.length() - 1;
+
+        final String rightOperandValue = getRightOperand(trimmedQuery, endOperatorIndex);
+        this.comparison = ComparisonPredicate.from(comparisonOperator, rightOperandValue);
+        this.leftOperandFlow = getLeftOperandFlow(trimmedQuery, startOperatorIndex);
     }
 
     @Override
@@ -56,24 +65,19 @@ public class ExpressionFlow implements ContextFlow<JsonElement, JsonPrimitive> {
 
     @Override
     public JsonPrimitive flow(final JsonElement jsonElement, final JigsonContext context) {
+        final JsonElement leftOperand = leftOperandFlow.flow(jsonElement, context);
 
-        final String comparisionOperator = resolveComparisonOperator().orElseThrow(IllegalQueryException::new);
-
-        final int startOperatorIndex = trimmedQuery.lastIndexOf(comparisionOperator);
-        final int endOperatorIndex = startOperatorIndex + comparisionOperator.length() - 1;
-
-        final String rightOperandValue = getRightOperand(endOperatorIndex);
-        final String leftOperandValue = getLeftOperand(jsonElement, startOperatorIndex);
-
-        final Predicate<String> predicate = PredicateFactory.create(comparisionOperator, leftOperandValue);
-        return new JsonPrimitive(predicate.accept(rightOperandValue));
+        if (leftOperand.isJsonPrimitive() && leftOperand.getAsJsonPrimitive().isNumber()) {
+            return new JsonPrimitive(comparison.acceptNumber(leftOperand.getAsNumber()));
+        }
+        return new JsonPrimitive(comparison.accept(getLeftOperand(leftOperand)));
     }
 
-    private Optional<String> resolveComparisonOperator() {
+    private static Optional<String> resolveComparisonOperator(final String trimmedQuery) {
 
         final String query = trimmedQuery.substring(INDEX_ONE);
 
-        final List<Token> tokens = TokenizerFactory.createQueryTokenizer().tokenize(query);
+        final List<Token> tokens = Lexer.QUERY.tokenize(query);
         return Lists
                 .reverse(tokens)
                 .stream()
@@ -82,7 +86,7 @@ public class ExpressionFlow implements ContextFlow<JsonElement, JsonPrimitive> {
                 .findFirst();
     }
 
-    private String getRightOperand(final int operatorIndex) {
+    private static String getRightOperand(final String trimmedQuery, final int operatorIndex) {
 
         final String rightOperandValue = trimmedQuery.substring(operatorIndex + 1).trim();
         if (!StringUtils.isNumeric(rightOperandValue)) {
@@ -91,10 +95,13 @@ public class ExpressionFlow implements ContextFlow<JsonElement, JsonPrimitive> {
         return rightOperandValue;
     }
 
-    private String getLeftOperand(final JsonElement jsonElement, final int operatorIndex) {
+    private static FetchFlow getLeftOperandFlow(final String trimmedQuery, final int operatorIndex) {
         final String fetchQuery = trimmedQuery.substring(INDEX_ONE, operatorIndex).trim();
-        final Query query = Query.from(fetchQuery);
-        final String leftOperandValue = new FetchFlow(query).flow(jsonElement).getAsString();
+        return new FetchFlow(Query.from(fetchQuery));
+    }
+
+    private static String getLeftOperand(final JsonElement leftOperand) {
+        final String leftOperandValue = leftOperand.getAsString();
 
         if (!StringUtils.isNumeric(leftOperandValue)) {
             throw new IllegalArgumentException("Left operand must be numeric!");
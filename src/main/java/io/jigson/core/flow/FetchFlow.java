@@ -20,27 +20,26 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
-import io.jigson.core.plugin.PluginDispatcher;
+import io.jigson.json.expression.Criterion;
 import io.jigson.json.pipe.JsonPipe;
 import io.jigson.pipe.ContextFlow;
 import io.jigson.pipe.JigsonContext;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.stream.IntStream;
-
-import static io.jigson.utils.CriterionUtils.findCriterion;
-import static io.jigson.utils.CriterionUtils.isCriterion;
-import static io.jigson.utils.JsonUtils.getPropertyByPath;
-import static io.jigson.utils.PathUtils.findPropertyName;
-import static io.jigson.utils.PathUtils.isFunction;
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class FetchFlow implements ContextFlow<JsonElement, JsonElement> {
 
-    private final Query query;
+    private final QueryPlan plan;
 
     public FetchFlow(final Query query) {
-        this.query = query.fork();
+        this(QueryPlan.from(query));
+    }
+
+    public FetchFlow(final QueryPlan plan) {
+        this.plan = plan;
     }
 
     @Override
@@ -48,60 +47,133 @@ public class FetchFlow implements ContextFlow<JsonElement, JsonElement> {
         return flow(jsonElement, JigsonContext.newContext());
     }
 
+    /**
+     * Slices are not copied, unless it's needed by the next step (eg. a plugin) or the slice is the result.
+     * Attributes fetched from each element of a slice are collected directly from the sliced array.
+     */
     @Override
     public JsonElement flow(final JsonElement jsonElement, final JigsonContext context) {
         JsonElement currentElement = jsonElement;
-        String currentPath = query.nextPath();
-
-        while (isNotBlank(currentPath)) {
-            if (isFunction(currentPath)) {
-                currentElement = PluginDispatcher.dispatch(currentElement, currentPath, context);
+        SliceView currentSlice = null;
+
+        for (final Step step : plan.getSteps()) {
+            if (Objects.nonNull(currentSlice)) {
+                if (!step.isFunction()) {
+                    currentElement = fetchElements(currentSlice, (PropertyStep) step, ((PropertyStep) step).getCriterion());
+                    currentSlice = null;
+                    continue;
+                }
+                currentElement = currentSlice.materialize();
+                currentSlice = null;
+            }
+            if (isSlice(step) && Objects.nonNull(currentElement) && currentElement.isJsonObject()) {
+                currentSlice = ((PropertyStep) step).selectSlice(currentElement.getAsJsonObject());
             } else {
-                currentElement = fetch(currentElement, currentPath);
+                currentElement = execute(currentElement, step, context);
             }
-            currentPath = query.nextPath();
         }
-        return currentElement;
+        return Objects.nonNull(currentSlice) ? currentSlice.materialize() : currentElement;
+    }
+
+    private static boolean isSlice(final Step step) {
+        return !step.isFunction() && ((PropertyStep) step).hasSlice() && !((PropertyStep) step).hasCriterion();
     }
 
-    private JsonElement fetch(final JsonElement currentElement, final String currentPath) {
+    /**
+     * Executes the plan as {@link #flow(JsonElement, JigsonContext)} does, measuring each of its steps.
+     */
+    public QueryProfile profile(final JsonElement jsonElement, final JigsonContext context) {
+
+        final List<StepProfile> profiles = new ArrayList<>(plan.size());
+        JsonElement currentElement = jsonElement;
+
+        for (final Step step : plan.getSteps()) {
+            final CountingCriterion criterion = step.isFunction() || !((PropertyStep) step).hasCriterion()
+                    ? null
+                    : new CountingCriterion(((PropertyStep) step).getCriterion());
+            final StepProfile.Meter meter = StepProfile.Meter.start();
+
+            final JsonElement result = step.isFunction()
+                    ? ((PluginStep) step).execute(currentElement, context)
+                    : fetch(currentElement, (PropertyStep) step, criterion);
+
+            profiles.add(meter.stop(step.getPath(), currentElement, result,
+                    Objects.isNull(criterion) ? 0 : criterion.evaluations.get()));
+            currentElement = result;
+        }
+        return new QueryProfile(currentElement, profiles);
+    }
+
+    /**
+     * Executes single step of a plan against given element.
+     */
+    static JsonElement execute(final JsonElement currentElement, final Step step, final JigsonContext context) {
+        if (step.isFunction()) {
+            return ((PluginStep) step).execute(currentElement, context);
+        }
+        return fetch(currentElement, (PropertyStep) step, ((PropertyStep) step).getCriterion());
+    }
+
+    private static JsonElement fetch(final JsonElement currentElement, final PropertyStep step, final Criterion criterion) {
         if (Objects.isNull(currentElement) || currentElement.isJsonNull()) {
             return JsonNull.INSTANCE;
         } else if (currentElement.isJsonObject()) {
-            return fetchObject(currentElement.getAsJsonObject(), currentPath);
+            return fetchObject(currentElement.getAsJsonObject(), step, criterion);
         } else if (currentElement.isJsonArray()) {
-            return fetchArray(currentElement.getAsJsonArray(), currentPath);
+            return fetchArray(currentElement.getAsJsonArray(), step, criterion);
         } else {
             throw new IllegalArgumentException();
         }
     }
 
-    private JsonElement fetchObject(final JsonObject jsonObject, final String currentPath) {
-        final JsonElement currentElement = getPropertyByPath(jsonObject, currentPath);
-        final String criterion = findCriterion(currentPath);
-        if (isCriterion(criterion)) {
+    private static JsonElement fetchObject(final JsonObject jsonObject, final PropertyStep step, final Criterion criterion) {
+        final JsonElement currentElement = step.select(jsonObject);
+        if (Objects.nonNull(criterion)) {
             return JsonPipe.from(currentElement).filter(criterion).get().orElse(JsonNull.INSTANCE);
         }
         return currentElement;
     }
 
-    private JsonElement fetchArray(final JsonArray jsonArray, final String currentPath) {
+    private static JsonElement fetchArray(final JsonArray jsonArray, final PropertyStep step, final Criterion criterion) {
+        return fetchElements(SliceView.of(jsonArray), step, criterion);
+    }
 
-        final String propertyName = findPropertyName(currentPath);
-        final String criterion = findCriterion(currentPath);
+    /**
+     * Fetches attribute from every object of given elements, ignoring index and slice of the step.
+     */
+    private static JsonElement fetchElements(final SliceView elements, final PropertyStep step, final Criterion criterion) {
 
         final JsonArray accumulator = new JsonArray();
 
-        IntStream.range(0, jsonArray.size())
-                .mapToObj(jsonArray::get)
-                .filter(JsonElement::isJsonObject)
-                .map(JsonElement::getAsJsonObject)
-                .map(o -> fetchObject(o, propertyName))
-                .forEach(accumulator::add);
+        for (int i = 0; i < elements.size(); ++i) {
+            final JsonElement element = elements.get(i);
+            if (element.isJsonObject()) {
+                accumulator.add(step.getProperty(element.getAsJsonObject()));
+            }
+        }
 
-        if (isCriterion(criterion)) {
+        if (Objects.nonNull(criterion)) {
             return JsonPipe.from(accumulator).filter(criterion).get().orElse(JsonNull.INSTANCE);
         }
         return accumulator;
     }
+
+    /**
+     * Counts evaluations of the criterion, which big arrays might have filtered by many threads.
+     */
+    private static final class CountingCriterion implements Criterion {
+
+        private final Criterion criterion;
+        private final AtomicLong evaluations = new AtomicLong();
+
+        private CountingCriterion(final Criterion criterion) {
+            this.criterion = criterion;
+        }
+
+        @Override
+        public boolean accept(final JsonElement jsonElement) {
+            evaluations.incrementAndGet();
+            return criterion.accept(jsonElement);
+        }
+    }
 }
@@ -20,20 +20,28 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
+import io.jigson.core.JigsonConfig;
 import io.jigson.core.JigsonConfigHolder;
+import io.jigson.json.expression.Criterion;
+import io.jigson.json.expression.CriterionCompiler;
 import io.jigson.json.filter.JsonArrayFilter;
 import io.jigson.json.filter.JsonObjectFilter;
 import io.jigson.json.filter.strategy.JsonFilterStrategyFactory;
+import io.jigson.metrics.JigsonMetrics;
 import io.jigson.pipe.UnitaryFlow;
 
 import java.util.Objects;
 
 public class FilterFlow implements UnitaryFlow<JsonElement> {
 
-    private final String criterion;
+    private final Criterion criterion;
     private final JsonObjectFilter jsonObjectFilter;
 
     public FilterFlow(final String criterion) {
+        this(CriterionCompiler.compile(criterion));
+    }
+
+    public FilterFlow(final Criterion criterion) {
         this.criterion = criterion;
         this.jsonObjectFilter = JsonObjectFilter.INSTANCE;
     }
@@ -44,12 +52,24 @@ public class FilterFlow implements UnitaryFlow<JsonElement> {
     }
 
     private JsonElement filter(final JsonElement jsonElement) {
+        final JigsonConfig config = JigsonConfigHolder.get();
+        final JigsonMetrics metrics = config.metrics().recorder();
+        if (!metrics.isEnabled()) {
+            return filter(jsonElement, config);
+        }
+        final long start = System.nanoTime();
+        final JsonElement result = filter(jsonElement, config);
+        metrics.onFilter(StepProfile.count(jsonElement), System.nanoTime() - start);
+        return result;
+    }
+
+    private JsonElement filter(final JsonElement jsonElement, final JigsonConfig config) {
         if (Objects.isNull(jsonElement) || jsonElement.isJsonNull()) {
             return JsonNull.INSTANCE;
         } else if (jsonElement.isJsonObject()) {
             return jsonObjectFilter.filter((JsonObject) jsonElement, criterion);
         } else if (jsonElement.isJsonArray()) {
-            final JsonArrayFilter.Strategy filterStrategy = JigsonConfigHolder.get().filters().arrays().strategy();
+            final JsonArrayFilter.Strategy filterStrategy = config.filters().arrays().strategy();
             final JsonArrayFilter jsonArrayFilter = JsonFilterStrategyFactory.createJsonArrayFilter(filterStrategy);
             return jsonArrayFilter.filter((JsonArray) jsonElement, criterion);
         } else {
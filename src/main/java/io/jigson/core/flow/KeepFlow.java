@@ -6,76 +6,105 @@ import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import io.jigson.json.pipe.JsonPipe;
 import io.jigson.pipe.UnitaryFlow;
-import io.jigson.utils.CriterionUtils;
 import io.jigson.utils.JsonUtils;
-import io.jigson.utils.PathUtils;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
-
+/**
+ * Represents Keep Mode evaluation, ie. the input structure without elements not meeting the query.
+ * The input is never modified. Only objects and arrays along the queried path are rebuilt,
+ * all untouched subtrees are shared between the input and the result (copy-on-write).
+ *
+ * @author Daniel Zarzeczny
+ */
 public class KeepFlow implements UnitaryFlow<JsonElement> {
 
-    private final Query query;
+    private static final int NO_CRITERION = -1;
+
+    private final QueryPlan plan;
+    private final int lastCriterionIndex;
 
     public KeepFlow(final Query query) {
-        this.query = query.fork();
+        this(QueryPlan.ofProperties(query));
+    }
+
+    public KeepFlow(final QueryPlan plan) {
+        this.plan = plan;
+        this.lastCriterionIndex = findLastCriterionIndex(plan);
     }
 
     public JsonElement flow(final JsonElement jsonElement) {
 
-        final JsonElement rootElement = jsonElement.deepCopy();
+        final List<Step> steps = plan.getSteps();
+
+        JsonElement rootElement = shallowCopy(jsonElement);
         JsonElement currentElement = rootElement;
-        String currentPath = query.nextPath();
 
-        while (isNotBlank(currentPath) && !currentElement.isJsonNull()) {
+        // the array pointed by (parent, attribute) is still part of the input, so it's replaced when filtered
+        JsonObject parentObject = null;
+        String attribute = null;
+        boolean isTreeArray = true;
 
-            final JsonElement resultElement = handle(currentElement, currentPath);
+        for (int i = 0; i < steps.size(); ++i) {
 
-            if (resultElement.isJsonNull()) {
-                return resultElement;
-            } else {
-                if (resultElement.isJsonArray() && currentElement.isJsonArray()) {
-                    final JsonArray resultArray = resultElement.getAsJsonArray();
-                    final JsonArray currentArray = JsonUtils.clearJsonArray(currentElement.getAsJsonArray());
-                    resultArray.forEach(currentArray::add);
-                    resultArray.isJsonNull();
+            final PropertyStep step = (PropertyStep) steps.get(i);
+
+            if (currentElement.isJsonObject()) {
+                final JsonObject currentObject = currentElement.getAsJsonObject();
+                final JsonElement resultElement = handleObject(currentObject, step);
+
+                if (resultElement.isJsonNull()) {
+                    return resultElement;
+                } else if (resultElement.isJsonObject()) {
+                    final JsonObject resultObject = shallowCopy(resultElement.getAsJsonObject());
+                    currentObject.add(step.getPropertyName(), resultObject);
+                    currentElement = resultObject;
+                } else {
+                    parentObject = currentObject;
+                    attribute = step.getPropertyName();
+                    currentElement = resultElement;
+                }
+            } else if (currentElement.isJsonArray()) {
+                final boolean copyElements = isTreeArray && i <= lastCriterionIndex;
+                final JsonElement resultElement = handleArray(currentElement.getAsJsonArray(), step, copyElements);
+
+                if (resultElement.isJsonNull()) {
+                    return resultElement;
+                }
+                if (isTreeArray) {
+                    if (Objects.isNull(parentObject)) {
+                        rootElement = resultElement;
+                    } else {
+                        parentObject.add(attribute, resultElement);
+                    }
+                    isTreeArray = false;
                 }
                 currentElement = resultElement;
-                currentPath = query.nextPath();
+            } else if (currentElement.isJsonNull()) {
+                return rootElement;
+            } else {
+                throw new IllegalArgumentException();
             }
         }
         return rootElement;
     }
 
-    private JsonElement handle(final JsonElement jsonElement, final String path) {
-        if (Objects.isNull(jsonElement) || jsonElement.isJsonNull()) {
-            return JsonNull.INSTANCE;
-        } else if (jsonElement.isJsonObject()) {
-            return handleObject(jsonElement.getAsJsonObject(), path);
-        } else if (jsonElement.isJsonArray()) {
-            return handleArray(jsonElement.getAsJsonArray(), path);
-        } else {
-            throw new IllegalArgumentException();
-        }
-    }
-
-    private JsonElement handleObject(final JsonObject jsonObject, final String path) {
+    private JsonElement handleObject(final JsonObject jsonObject, final PropertyStep step) {
 
-        final String criterion = CriterionUtils.findCriterion(path);
-
-        if (CriterionUtils.isCriterion(criterion)) {
-            final JsonElement currentElement = JsonUtils.getPropertyByPath(jsonObject, path);
+        if (step.hasCriterion()) {
+            final JsonElement currentElement = step.select(jsonObject);
 
             final JsonElement resultElement =
                     JsonPipe.from(currentElement)
-                            .filter(criterion)
+                            .filter(step.getCriterion())
                             .get()
                             .orElse(JsonNull.INSTANCE);
-            JsonUtils.addOrRemoveObjectAttribute(jsonObject, resultElement, path);
+            JsonUtils.addOrRemoveObjectAttribute(jsonObject, resultElement, step.getPath());
             return resultElement;
         } else {
-            final String propertyName = PathUtils.findPropertyName(path);
+            final String propertyName = step.getPropertyName();
             if (!jsonObject.has(propertyName)) {
                 return JsonNull.INSTANCE;
             } else {
@@ -84,7 +113,11 @@ public class KeepFlow implements UnitaryFlow<JsonElement> {
         }
     }
 
-    private JsonElement handleArray(final JsonArray jsonArray, final String path) {
+    /**
+     * @param copyElements whether {@link JsonObject}s are still shared with the input,
+     *                     so they have to be copied before any (current or further) step modifies them
+     */
+    private JsonElement handleArray(final JsonArray jsonArray, final PropertyStep step, final boolean copyElements) {
 
         final JsonArray resultArray = new JsonArray();
 
@@ -92,10 +125,10 @@ public class KeepFlow implements UnitaryFlow<JsonElement> {
         for (int i = 0; i < jsonArray.size(); ++i) {
             final JsonElement currentElement = jsonArray.get(i);
             if (currentElement.isJsonObject()) {
-                final JsonElement resultElement =
-                        handleObject(currentElement.getAsJsonObject(), path).isJsonNull() ? JsonNull.INSTANCE : currentElement;
-                if (!resultElement.isJsonNull()) {
-                    resultArray.add(resultElement);
+                final JsonObject currentObject =
+                        copyElements ? shallowCopy(currentElement.getAsJsonObject()) : currentElement.getAsJsonObject();
+                if (!handleObject(currentObject, step).isJsonNull()) {
+                    resultArray.add(currentObject);
                 }
             } else {
                 resultArray.add(currentElement);
@@ -104,4 +137,32 @@ public class KeepFlow implements UnitaryFlow<JsonElement> {
 
         return resultArray.size() == 0 ? JsonNull.INSTANCE : resultArray;
     }
+
+    private static JsonElement shallowCopy(final JsonElement jsonElement) {
+        if (jsonElement.isJsonObject()) {
+            return shallowCopy(jsonElement.getAsJsonObject());
+        } else if (jsonElement.isJsonArray()) {
+            final JsonArray copy = new JsonArray(jsonElement.getAsJsonArray().size());
+            copy.addAll(jsonElement.getAsJsonArray());
+            return copy;
+        }
+        return jsonElement;
+    }
+
+    private static JsonObject shallowCopy(final JsonObject jsonObject) {
+        final JsonObject copy = new JsonObject();
+        for (final Map.Entry<String, JsonElement> entry : jsonObject.entrySet()) {
+            copy.add(entry.getKey(), entry.getValue());
+        }
+        return copy;
+    }
+
+    private static int findLastCriterionIndex(final QueryPlan plan) {
+        for (int i = plan.size() - 1; i >= 0; --i) {
+            if (((PropertyStep) plan.get(i)).hasCriterion()) {
+                return i;
+            }
+        }
+        return NO_CRITERION;
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import io.jigson.core.plugin.IllegalJsonElementException;
+import io.jigson.json.lazy.LazyDocument;
+import io.jigson.json.pipe.JsonPipe;
+import io.jigson.pipe.ContextFlow;
+import io.jigson.pipe.JigsonContext;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.apache.commons.lang3.StringUtils.INDEX_NOT_FOUND;
+
+/**
+ * Represents a flow evaluating Fetch Mode query against {@link LazyDocument}, navigating its structural index
+ * rather than Gson tree. Only values the query gives (or passes to a step it can't navigate) are materialised.
+ * <p>
+ * Attributes without criterion, array indices and attributes fetched from each element of an array are navigated.
+ * Whenever a step needs more (eg. a plugin, a slice or a criterion of an object), just the value the step
+ * is applied to is materialised and the rest of the query is evaluated by {@link FetchFlow}.
+ * The result is always the same as one given by {@link FetchFlow} for the materialised document.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class LazyFetchFlow implements ContextFlow<LazyDocument, JsonElement> {
+
+    private final QueryPlan plan;
+    private final FetchFlow[] remainingFlows;
+    private final byte[][] propertyNames;
+
+    public LazyFetchFlow(final QueryPlan plan) {
+        this.plan = plan;
+        this.remainingFlows = plan.remainingFlows();
+        this.propertyNames = new byte[plan.size()][];
+        for (int i = 0; i < plan.size(); ++i) {
+            if (!plan.get(i).isFunction()) {
+                propertyNames[i] = ((PropertyStep) plan.get(i)).getPropertyName().getBytes(StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    @Override
+    public JsonElement flow(final LazyDocument document) {
+        return flow(document, JigsonContext.newContext());
+    }
+
+    @Override
+    public JsonElement flow(final LazyDocument document, final JigsonContext context) {
+        return evaluate(document, document.root(), 0, context);
+    }
+
+    /**
+     * Navigates the document along the query, when it consists of attributes without criterion
+     * and array indices only.
+     *
+     * @return reference to the value the query points at, or {@link LazyDocument#MISSING} when it can't be found
+     * by navigation alone (eg. the query has a plugin or an attribute is missing)
+     */
+    public long locate(final LazyDocument document) {
+
+        long current = document.root();
+        for (int i = 0; i < plan.size(); ++i) {
+            final Step step = plan.get(i);
+            if (step.isFunction() || ((PropertyStep) step).hasCriterion() || !document.isObject(current)) {
+                return LazyDocument.MISSING;
+            }
+            current = document.field(current, propertyNames[i]);
+            if (LazyDocument.MISSING == current) {
+                return LazyDocument.MISSING;
+            } else if (!((PropertyStep) step).hasNoIndex()) {
+                final int index = ((PropertyStep) step).getIndex();
+                if (index == INDEX_NOT_FOUND || !document.isArray(current)) {
+                    return LazyDocument.MISSING;
+                }
+                current = document.element(current, index);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Evaluates steps starting at given one against referred value.
+     */
+    private JsonElement evaluate(final LazyDocument document,
+                                 final long reference,
+                                 final int stepIndex,
+                                 final JigsonContext context) {
+
+        if (stepIndex == plan.size()) {
+            return document.materialize(reference);
+        }
+        final Step step = plan.get(stepIndex);
+        if (step.isFunction()) {
+            return remainingFlows[stepIndex].flow(document.materialize(reference), context);
+        } else if (document.isObject(reference) && !((PropertyStep) step).hasCriterion()) {
+            return evaluateObject(document, reference, stepIndex, (PropertyStep) step, context);
+        } else if (document.isObject(reference) && ((PropertyStep) step).hasNoIndex()) {
+            return evaluateCriterion(document, reference, stepIndex, (PropertyStep) step, context);
+        } else if (document.isArray(reference)) {
+            return evaluateArray(document, reference, stepIndex, context);
+        }
+        return remainingFlows[stepIndex].flow(document.materialize(reference), context);
+    }
+
+    private JsonElement evaluateObject(final LazyDocument document,
+                                       final long reference,
+                                       final int stepIndex,
+                                       final PropertyStep step,
+                                       final JigsonContext context) {
+
+        final long value = document.field(reference, propertyNames[stepIndex]);
+        if (step.hasNoIndex()) {
+            return LazyDocument.MISSING == value
+                    ? remainingFlows[stepIndex + 1].flow(JsonNull.INSTANCE, context)
+                    : evaluate(document, value, stepIndex + 1, context);
+        } else if (step.getIndex() != INDEX_NOT_FOUND) {
+            if (LazyDocument.MISSING == value || !document.isArray(value)) {
+                throw new IllegalJsonElementException("Not an instance of JsonArray!");
+            }
+            return evaluate(document, document.element(value, step.getIndex()), stepIndex + 1, context);
+        }
+        return remainingFlows[stepIndex].flow(document.materialize(reference), context);
+    }
+
+    /**
+     * Materialises just the attribute the criterion is applied to.
+     */
+    private JsonElement evaluateCriterion(final LazyDocument document,
+                                          final long reference,
+                                          final int stepIndex,
+                                          final PropertyStep step,
+                                          final JigsonContext context) {
+
+        final long value = document.field(reference, propertyNames[stepIndex]);
+        final JsonElement property = LazyDocument.MISSING == value ? JsonNull.INSTANCE : document.materialize(value);
+        final JsonElement filtered = JsonPipe.from(property).filter(step.getCriterion()).get().orElse(JsonNull.INSTANCE);
+        return remainingFlows[stepIndex + 1].flow(filtered, context);
+    }
+
+    /**
+     * Fetches attribute from every object of the array. Following steps without criterion
+     * are applied to each of the objects at once, so only the final attributes are materialised.
+     */
+    private JsonElement evaluateArray(final LazyDocument document,
+                                      final long reference,
+                                      final int stepIndex,
+                                      final JigsonContext context) {
+
+        final int lastStepIndex = plan.lastFanOutStep(stepIndex);
+        final JsonArray accumulator = new JsonArray();
+
+        document.forEachElement(reference, element -> {
+            if (document.isObject(element)) {
+                final JsonElement value = fetchPath(document, element, stepIndex, lastStepIndex);
+                if (value != null) {
+                    accumulator.add(value);
+                }
+            }
+        });
+
+        final PropertyStep lastStep = (PropertyStep) plan.get(lastStepIndex);
+        return remainingFlows[lastStepIndex + 1].flow(lastStep.filterFetched(accumulator), context);
+    }
+
+    /**
+     * @return value of the attribute pointed by steps between given ones,
+     * or null when any of intermediate attributes is not an object
+     */
+    private JsonElement fetchPath(final LazyDocument document, final long reference, final int stepIndex, final int lastStepIndex) {
+
+        long current = reference;
+        for (int i = stepIndex; i < lastStepIndex; ++i) {
+            current = document.field(current, propertyNames[i]);
+            if (LazyDocument.MISSING == current || !document.isObject(current)) {
+                return null;
+            }
+        }
+        final long value = document.field(current, propertyNames[lastStepIndex]);
+        return LazyDocument.MISSING == value ? JsonNull.INSTANCE : document.materialize(value);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonElement;
+import io.jigson.core.plugin.PluginDispatcher;
+import io.jigson.core.plugin.UnrecognizedPluginException;
+import io.jigson.pipe.JigsonContext;
+import io.jigson.plugin.JsonPlugin;
+import io.jigson.plugin.PluginRegistry;
+
+import java.util.Objects;
+
+/**
+ * Represents a step executing a plugin, eg. {@code sum()}.
+ * The plugin is looked up in the global registry once, when the step is created. If plugins have been
+ * (de)registered since then, or the step is executed with another registry, the lookup is repeated.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class PluginStep implements Step {
+
+    private final String path;
+    private final JsonPlugin plugin;
+    private final int registryVersion;
+
+    private PluginStep(final String path) {
+        this.path = path;
+        this.registryVersion = PluginRegistry.INSTANCE.version();
+        this.plugin = PluginDispatcher.resolve(PluginRegistry.INSTANCE, path).orElse(null);
+    }
+
+    public static PluginStep from(final String path) {
+        return new PluginStep(path);
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public boolean isFunction() {
+        return true;
+    }
+
+    public JsonElement execute(final JsonElement jsonElement, final JigsonContext context) {
+
+        final PluginRegistry registry = context.pluginRegistry();
+        final JsonPlugin currentPlugin =
+                registry == PluginRegistry.INSTANCE && registryVersion == registry.version()
+                        ? plugin
+                        : PluginDispatcher.resolve(registry, path).orElse(null);
+
+        if (Objects.isNull(currentPlugin)) {
+            throw new UnrecognizedPluginException();
+        }
+        return PluginDispatcher.dispatch(jsonElement, currentPlugin, context);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import io.jigson.core.plugin.IllegalJsonElementException;
+import io.jigson.json.expression.Criterion;
+import io.jigson.json.expression.CriterionCompiler;
+import io.jigson.json.pipe.JsonPipe;
+import io.jigson.utils.CriterionUtils;
+import io.jigson.utils.PathUtils;
+
+import java.util.Objects;
+
+import static org.apache.commons.lang3.StringUtils.INDEX_NOT_FOUND;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.apache.commons.lang3.StringUtils.isNumeric;
+
+/**
+ * Represents a step navigating to an attribute of {@link JsonObject},
+ * eg. {@code people[1:3](age<=20)}. Property name, index, slice and criterion
+ * are resolved once, when the step is created.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class PropertyStep implements Step {
+
+    private final String path;
+    private final String propertyName;
+    private final String rawIndex;
+    private final int index;
+    private final Slice slice;
+    private final Criterion criterion;
+
+    private PropertyStep(final String path) {
+        this.path = path;
+        this.propertyName = PathUtils.findPropertyName(path);
+        this.rawIndex = PathUtils.findRawIndex(path);
+        this.index = isNumeric(rawIndex) ? PathUtils.findIndex(rawIndex) : INDEX_NOT_FOUND;
+        this.slice = PathUtils.isSlice(rawIndex) ? Slice.from(rawIndex) : null;
+
+        final String candidate = CriterionUtils.findCriterion(path);
+        this.criterion = CriterionUtils.isCriterion(candidate) ? CriterionCompiler.compile(candidate) : null;
+    }
+
+    public static PropertyStep from(final String path) {
+        return new PropertyStep(path);
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public boolean isFunction() {
+        return false;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public boolean hasCriterion() {
+        return Objects.nonNull(criterion);
+    }
+
+    public Criterion getCriterion() {
+        return criterion;
+    }
+
+    /**
+     * Filters values fetched by this step from objects of an array with criterion of this step, if any.
+     */
+    JsonElement filterFetched(final JsonArray fetched) {
+        if (hasCriterion()) {
+            return JsonPipe.from(fetched).filter(criterion).get().orElse(JsonNull.INSTANCE);
+        }
+        return fetched;
+    }
+
+    /**
+     * @return true if the step gives neither index nor slice
+     */
+    boolean hasNoIndex() {
+        return isBlank(rawIndex);
+    }
+
+    /**
+     * @return numeric index given by the step or {@link org.apache.commons.lang3.StringUtils#INDEX_NOT_FOUND}
+     */
+    int getIndex() {
+        return Objects.isNull(slice) ? index : INDEX_NOT_FOUND;
+    }
+
+    /**
+     * Resolves value of the attribute pointed by this step,
+     * taking into account index or slice (if any given).
+     */
+    public JsonElement select(final JsonObject jsonObject) {
+
+        final JsonElement jsonElement = getProperty(jsonObject);
+
+        if (isNotBlank(rawIndex) && Objects.isNull(slice)) {
+            final int resolvedIndex = index != INDEX_NOT_FOUND ? index : PathUtils.findIndex(rawIndex);
+            if (!jsonElement.isJsonArray()) {
+                throw new IllegalJsonElementException("Not an instance of JsonArray!");
+            }
+            return jsonElement.getAsJsonArray().get(resolvedIndex);
+        } else if (Objects.nonNull(slice)) {
+            return SliceView.of(jsonElement.getAsJsonArray(), slice).materialize();
+        }
+        return jsonElement;
+    }
+
+    /**
+     * @return true if the step gives a slice, eg. {@code people[1:10:2]}
+     */
+    boolean hasSlice() {
+        return Objects.nonNull(slice);
+    }
+
+    /**
+     * Resolves elements of the attribute selected by the slice of this step, without copying them.
+     */
+    SliceView selectSlice(final JsonObject jsonObject) {
+        return SliceView.of(getProperty(jsonObject).getAsJsonArray(), slice);
+    }
+
+    /**
+     * Resolves value of the attribute by its name only, ignoring index, slice and criterion.
+     */
+    public JsonElement getProperty(final JsonObject jsonObject) {
+        final JsonElement jsonElement = jsonObject.get(propertyName);
+        return Objects.isNull(jsonElement) ? JsonNull.INSTANCE : jsonElement;
+    }
+}
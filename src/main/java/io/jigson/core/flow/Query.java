@@ -16,30 +16,31 @@
 
 package io.jigson.core.flow;
 
-import com.google.common.collect.Lists;
+import io.jigson.core.Lexer;
 import io.jigson.core.Token;
-import io.jigson.core.TokenizerFactory;
-import org.apache.commons.lang3.SerializationUtils;
 
-import java.io.Serializable;
 import java.util.Iterator;
-import java.util.List;
-import java.util.ListIterator;
+import java.util.NoSuchElementException;
 
+/**
+ * Represents a cursor over tokens of a query.
+ * Tokens are held in an array which is never modified, thus every {@link #fork()}
+ * shares it with the original query and only gets its own cursor.
+ *
+ * @author Daniel Zarzeczny
+ */
 public final class Query implements Iterator<Token> {
 
-    private final List<Token> tokens;
-    private final ListIterator<Token> iterator;
+    private final Token[] tokens;
+    private int cursor;
 
     private Query(final String query) {
-        this.tokens = TokenizerFactory.createQueryTokenizer().tokenize(query);
-        this.iterator = tokens.listIterator();
+        this(Lexer.QUERY.tokenize(query).toArray(new Token[0]), 0);
     }
 
-    @SuppressWarnings("unchecked")
-    private Query(final List<Token> tokens) {
-        this.tokens = (List<Token>) SerializationUtils.roundtrip((Serializable) tokens);
-        this.iterator = tokens.listIterator();
+    private Query(final Token[] tokens, final int cursor) {
+        this.tokens = tokens;
+        this.cursor = cursor;
     }
 
     public static Query from(final String query) {
@@ -48,12 +49,15 @@ public final class Query implements Iterator<Token> {
 
     @Override
     public boolean hasNext() {
-        return iterator.hasNext();
+        return cursor < tokens.length;
     }
 
     @Override
     public Token next() {
-        return iterator.next();
+        if (hasNext()) {
+            return tokens[cursor++];
+        }
+        throw new NoSuchElementException();
     }
 
     public String nextPath() {
@@ -70,14 +74,12 @@ public final class Query implements Iterator<Token> {
     }
 
     public int leftTokens() {
-        return tokens.size() - iterator.nextIndex();
+        return tokens.length - cursor;
     }
 
     Query fork() {
-        final int nextIndex = iterator.nextIndex();
-        final int size = tokens.size();
-        if (nextIndex < size) {
-            return new Query(Lists.newLinkedList(tokens.subList(nextIndex, size)));
+        if (hasNext()) {
+            return new Query(tokens, cursor);
         }
         throw new EndOfQueryException();
     }
@@ -0,0 +1,149 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static io.jigson.utils.PathUtils.isFunction;
+import static org.apache.commons.lang3.StringUtils.INDEX_NOT_FOUND;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Represents an immutable sequence of {@link Step}s resolved from a {@link Query}.
+ * Once created it might be executed any number of times, from any thread,
+ * without parsing query again.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class QueryPlan {
+
+    private final List<Step> steps;
+
+    private QueryPlan(final List<Step> steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Creates plan of all steps remaining in given query.
+     * The query itself is not consumed.
+     */
+    public static QueryPlan from(final Query query) {
+        return from(query, path -> isFunction(path) ? PluginStep.from(path) : PropertyStep.from(path));
+    }
+
+    /**
+     * Creates plan of all steps remaining in given query,
+     * treating each of them as {@link PropertyStep} (as Keep Mode does).
+     * The query itself is not consumed.
+     */
+    public static QueryPlan ofProperties(final Query query) {
+        return from(query, PropertyStep::from);
+    }
+
+    private static QueryPlan from(final Query query, final Function<String, Step> stepFactory) {
+
+        final Query fork = query.fork();
+        final ImmutableList.Builder<Step> steps = ImmutableList.builder();
+
+        String currentPath = fork.nextPath();
+        while (isNotBlank(currentPath)) {
+            steps.add(stepFactory.apply(currentPath));
+            currentPath = fork.nextPath();
+        }
+        return new QueryPlan(steps.build());
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    public int size() {
+        return steps.size();
+    }
+
+    public Step get(final int index) {
+        return steps.get(index);
+    }
+
+    /**
+     * @return description of the steps, one per line, eg. {@code 1. people(age>20) - attribute 'people', criterion}
+     */
+    public String explain() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < steps.size(); ++i) {
+            if (i > 0) {
+                builder.append(System.lineSeparator());
+            }
+            builder.append(i + 1).append(". ").append(steps.get(i).getPath()).append(" - ").append(describe(steps.get(i)));
+        }
+        return builder.toString();
+    }
+
+    private static String describe(final Step step) {
+        if (step.isFunction()) {
+            return "plugin";
+        }
+        final PropertyStep propertyStep = (PropertyStep) step;
+        final StringBuilder builder = new StringBuilder("attribute '").append(propertyStep.getPropertyName()).append('\'');
+        if (propertyStep.getIndex() != INDEX_NOT_FOUND) {
+            builder.append(", index ").append(propertyStep.getIndex());
+        } else if (!propertyStep.hasNoIndex()) {
+            builder.append(", slice");
+        }
+        if (propertyStep.hasCriterion()) {
+            builder.append(", criterion");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return plan of steps starting at given index
+     */
+    public QueryPlan subPlan(final int fromIndex) {
+        return new QueryPlan(steps.subList(fromIndex, steps.size()));
+    }
+
+    /**
+     * @return flows of plans starting at each step, indexed by the step, followed by flow of the empty plan
+     */
+    FetchFlow[] remainingFlows() {
+        final FetchFlow[] flows = new FetchFlow[steps.size() + 1];
+        for (int i = 0; i <= steps.size(); ++i) {
+            flows[i] = new FetchFlow(subPlan(i));
+        }
+        return flows;
+    }
+
+    /**
+     * Finds the last of property steps which, starting at given one, might be applied to each object of an array
+     * at once, ie. until a step with criterion (inclusive) or a plugin (exclusive).
+     *
+     * @param stepIndex index of property step
+     */
+    int lastFanOutStep(final int stepIndex) {
+        int lastStepIndex = stepIndex;
+        while (!((PropertyStep) steps.get(lastStepIndex)).hasCriterion()
+                && lastStepIndex + 1 < steps.size()
+                && !steps.get(lastStepIndex + 1).isFunction()) {
+            lastStepIndex++;
+        }
+        return lastStepIndex;
+    }
+}
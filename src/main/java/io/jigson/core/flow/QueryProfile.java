@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonElement;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Represents result of profiled query, along with measurements of each of its steps.
+ * Its {@link #toString()} gives a table of the steps, so the costly one might be spotted at a glance.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class QueryProfile {
+
+    private static final String HEADER = String.format("%-32s %12s %10s %10s %12s %14s",
+            "step", "time [ms]", "in", "out", "evaluations", "allocated [B]");
+
+    private final JsonElement result;
+    private final List<StepProfile> steps;
+
+    QueryProfile(final JsonElement result, final List<StepProfile> steps) {
+        this.result = result;
+        this.steps = ImmutableList.copyOf(steps);
+    }
+
+    /**
+     * Profiles execution, which can't be split into steps (eg. of Keep or Expression Mode query), as a single step.
+     */
+    public static QueryProfile measure(final String query, final JsonElement input, final Supplier<JsonElement> execution) {
+        final StepProfile.Meter meter = StepProfile.Meter.start();
+        final JsonElement result = execution.get();
+        return new QueryProfile(result, ImmutableList.of(meter.stop(query, input, result, 0)));
+    }
+
+    public JsonElement getResult() {
+        return result;
+    }
+
+    public List<StepProfile> getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return wall time of all the steps in nanoseconds
+     */
+    public long getNanos() {
+        return steps.stream().mapToLong(StepProfile::getNanos).sum();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(HEADER);
+        steps.forEach(step -> builder.append(System.lineSeparator()).append(step));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonElement;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Represents outcome of a single query run along with others, ie. either its result or the exception it failed with,
+ * so failure of one query doesn't affect results of the others.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class QueryResult {
+
+    private final JsonElement value;
+    private final RuntimeException error;
+
+    private QueryResult(final JsonElement value, final RuntimeException error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    public static QueryResult of(final JsonElement value) {
+        return new QueryResult(value, null);
+    }
+
+    public static QueryResult failed(final RuntimeException error) {
+        return new QueryResult(null, Objects.requireNonNull(error));
+    }
+
+    public boolean isFailed() {
+        return Objects.nonNull(error);
+    }
+
+    /**
+     * @return result of the query
+     * @throws RuntimeException exception the query failed with, if it failed
+     */
+    public JsonElement get() {
+        if (isFailed()) {
+            throw error;
+        }
+        return value;
+    }
+
+    public Optional<RuntimeException> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    @Override
+    public String toString() {
+        return isFailed() ? "failed: " + error : String.valueOf(value);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import io.jigson.core.plugin.IllegalJsonElementException;
+import io.jigson.pipe.ContextFlow;
+import io.jigson.pipe.JigsonContext;
+
+import java.util.Objects;
+
+import static org.apache.commons.lang3.StringUtils.INDEX_NOT_FOUND;
+
+/**
+ * Represents a flow evaluating Fetch Mode query which is a plain path, eg. {@code @a.b[3].c}, ie. it consists of
+ * attributes without criterion and numeric indices only. Such query is compiled into a fixed array of keys
+ * and indices, so objects are navigated with no intermediate allocations.
+ * <p>
+ * When an array is reached in place of an object, the rest of the query is evaluated by {@link FetchFlow}, which
+ * fetches the attribute from each element of the array. The result is always the same as {@link FetchFlow} gives.
+ * Neither config nor context is needed by such queries, so they are ignored.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class SimplePathFlow implements ContextFlow<JsonElement, JsonElement> {
+
+    private final String[] keys;
+    private final int[] indices;
+    private final FetchFlow[] remainingFlows;
+
+    private SimplePathFlow(final QueryPlan plan) {
+        this.keys = new String[plan.size()];
+        this.indices = new int[plan.size()];
+        this.remainingFlows = new FetchFlow[plan.size()];
+        for (int i = 0; i < plan.size(); ++i) {
+            final PropertyStep step = (PropertyStep) plan.get(i);
+            keys[i] = step.getPropertyName();
+            indices[i] = step.getIndex();
+            remainingFlows[i] = new FetchFlow(plan.subPlan(i));
+        }
+    }
+
+    /**
+     * @return true if given plan is a plain path, which might be evaluated by this flow
+     */
+    public static boolean isSimplePath(final QueryPlan plan) {
+        for (final Step step : plan.getSteps()) {
+            if (step.isFunction()) {
+                return false;
+            }
+            final PropertyStep propertyStep = (PropertyStep) step;
+            if (propertyStep.hasCriterion() || (!propertyStep.hasNoIndex() && propertyStep.getIndex() == INDEX_NOT_FOUND)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static SimplePathFlow from(final QueryPlan plan) {
+        if (!isSimplePath(plan)) {
+            throw new IllegalArgumentException("Not a simple path!");
+        }
+        return new SimplePathFlow(plan);
+    }
+
+    @Override
+    public JsonElement flow(final JsonElement jsonElement) {
+        JsonElement currentElement = jsonElement;
+
+        for (int i = 0; i < keys.length; ++i) {
+            if (Objects.isNull(currentElement) || currentElement.isJsonNull()) {
+                return JsonNull.INSTANCE;
+            } else if (currentElement.isJsonArray()) {
+                return remainingFlows[i].flow(currentElement);
+            } else if (!currentElement.isJsonObject()) {
+                throw new IllegalArgumentException();
+            }
+            currentElement = currentElement.getAsJsonObject().get(keys[i]);
+            if (indices[i] != INDEX_NOT_FOUND) {
+                if (Objects.isNull(currentElement) || !currentElement.isJsonArray()) {
+                    throw new IllegalJsonElementException("Not an instance of JsonArray!");
+                }
+                currentElement = currentElement.getAsJsonArray().get(indices[i]);
+            }
+        }
+        return Objects.isNull(currentElement) ? JsonNull.INSTANCE : currentElement;
+    }
+
+    @Override
+    public JsonElement flow(final JsonElement jsonElement, final JigsonContext context) {
+        return flow(jsonElement);
+    }
+}
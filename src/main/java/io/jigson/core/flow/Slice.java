@@ -16,8 +16,8 @@
 
 package io.jigson.core.flow;
 
+import io.jigson.core.Lexer;
 import io.jigson.core.Token;
-import io.jigson.core.TokenizerFactory;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
@@ -63,7 +63,7 @@ public class Slice {
 
     public static Slice from(final String rawIndex) {
         final List<String> items =
-                TokenizerFactory.createSliceTokenizer()
+                Lexer.SLICE
                         .tokenize(rawIndex)
                         .stream()
                         .map(Token::getToken)
@@ -0,0 +1,83 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+/**
+ * Represents elements of {@link JsonArray} selected by a {@link Slice}, eg. {@code [1:1000:2]}, without copying them.
+ * The view is backed by the array, so it's valid only as long as the array is not modified.
+ *
+ * @author Daniel Zarzeczny
+ */
+final class SliceView {
+
+    private final JsonArray jsonArray;
+    private final int startIndex;
+    private final int step;
+    private final int size;
+
+    private SliceView(final JsonArray jsonArray, final int startIndex, final int step, final int size) {
+        this.jsonArray = jsonArray;
+        this.startIndex = startIndex;
+        this.step = step;
+        this.size = size;
+    }
+
+    static SliceView of(final JsonArray jsonArray) {
+        return new SliceView(jsonArray, 0, 1, jsonArray.size());
+    }
+
+    /**
+     * Selects the same elements as {@code IntStream.iterate(start, i -> i + step).limit(end).filter(i -> i < end)}.
+     */
+    static SliceView of(final JsonArray jsonArray, final Slice slice) {
+        final int startIndex = slice.getStartIndex();
+        final int endIndex = slice.getEndIndex(jsonArray.size());
+        final int step = slice.getStep();
+
+        final int size;
+        if (startIndex >= endIndex) {
+            size = 0;
+        } else if (step == 0) {
+            size = endIndex;
+        } else {
+            size = (int) (((long) endIndex - startIndex + step - 1) / step);
+        }
+        return new SliceView(jsonArray, startIndex, step, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    JsonElement get(final int index) {
+        return jsonArray.get(startIndex + index * step);
+    }
+
+    /**
+     * @return new array of the selected elements
+     */
+    JsonArray materialize() {
+        final JsonArray accumulator = new JsonArray(size);
+        for (int i = 0; i < size; ++i) {
+            accumulator.add(get(i));
+        }
+        return accumulator;
+    }
+}
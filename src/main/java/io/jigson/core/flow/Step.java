@@ -0,0 +1,30 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+/**
+ * Represents a single, already resolved step of a {@link QueryPlan},
+ * i.e. everything between two dots of a JiGSON query.
+ *
+ * @author Daniel Zarzeczny
+ */
+public interface Step {
+
+    String getPath();
+
+    boolean isFunction();
+}
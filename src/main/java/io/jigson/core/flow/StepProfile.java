@@ -0,0 +1,144 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonElement;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Objects;
+
+/**
+ * Represents measurements of a single step of profiled query, see {@link QueryProfile}.
+ * Elements are counted as arrays' sizes, {@link com.google.gson.JsonNull} counts as none and any other element as one.
+ * Allocated bytes are the ones allocated by the profiling thread, if the JVM is able to measure them.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class StepProfile {
+
+    /**
+     * Returned instead of allocated bytes, when the JVM is not able to measure them.
+     */
+    public static final long NOT_MEASURED = -1L;
+
+    private final String path;
+    private final long nanos;
+    private final int elementsIn;
+    private final int elementsOut;
+    private final long evaluations;
+    private final long allocatedBytes;
+
+    StepProfile(final String path,
+                final long nanos,
+                final int elementsIn,
+                final int elementsOut,
+                final long evaluations,
+                final long allocatedBytes) {
+        this.path = path;
+        this.nanos = nanos;
+        this.elementsIn = elementsIn;
+        this.elementsOut = elementsOut;
+        this.evaluations = evaluations;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return wall time of the step in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    public int getElementsIn() {
+        return elementsIn;
+    }
+
+    public int getElementsOut() {
+        return elementsOut;
+    }
+
+    /**
+     * @return number of elements the criterion of the step has been evaluated against
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @return bytes allocated while executing the step or {@link #NOT_MEASURED}
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-32s %12.3f %10d %10d %12d %14s", path, nanos / 1_000_000.0, elementsIn, elementsOut,
+                evaluations, allocatedBytes == NOT_MEASURED ? "n/a" : String.valueOf(allocatedBytes));
+    }
+
+    static int count(final JsonElement jsonElement) {
+        if (Objects.isNull(jsonElement) || jsonElement.isJsonNull()) {
+            return 0;
+        }
+        return jsonElement.isJsonArray() ? jsonElement.getAsJsonArray().size() : 1;
+    }
+
+    /**
+     * Measures time and allocations since it has been started.
+     */
+    static final class Meter {
+
+        private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+        private final long allocatedBytes;
+        private final long start;
+
+        private Meter() {
+            this.allocatedBytes = allocatedBytes();
+            this.start = System.nanoTime();
+        }
+
+        static Meter start() {
+            return new Meter();
+        }
+
+        StepProfile stop(final String path, final JsonElement input, final JsonElement output, final long evaluations) {
+            final long nanos = System.nanoTime() - start;
+            final long currentAllocatedBytes = allocatedBytes();
+            final long allocated = allocatedBytes == NOT_MEASURED || currentAllocatedBytes == NOT_MEASURED
+                    ? NOT_MEASURED
+                    : currentAllocatedBytes - allocatedBytes;
+            return new StepProfile(path, nanos, count(input), count(output), evaluations, allocated);
+        }
+
+        private static long allocatedBytes() {
+            if (THREADS instanceof com.sun.management.ThreadMXBean) {
+                final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+                if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                    return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+                }
+            }
+            return NOT_MEASURED;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import io.jigson.json.expression.Criterion;
+import io.jigson.json.filter.JsonArrayFilter;
+import io.jigson.json.filter.strategy.JsonFilterStrategyFactory;
+import io.jigson.pipe.ContextFlow;
+import io.jigson.pipe.JigsonContext;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Objects;
+
+import static org.apache.commons.lang3.StringUtils.INDEX_NOT_FOUND;
+
+/**
+ * Represents a flow evaluating Fetch Mode query while JSON document is being read,
+ * so the document is never loaded into memory as a whole.
+ * Attributes which can't match the query are skipped and only matched values are materialised.
+ * <p>
+ * Whenever a step can't be evaluated incrementally (eg. a plugin or a slice), just the value
+ * the step is applied to is materialised and the rest of the query is evaluated by {@link FetchFlow}.
+ * The result is always the same as one given by {@link FetchFlow} for the whole document.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class StreamingFetchFlow implements ContextFlow<JsonReader, JsonElement> {
+
+    private static final JsonParser PARSER = new JsonParser();
+
+    private final QueryPlan plan;
+    private final FetchFlow[] remainingFlows;
+
+    public StreamingFetchFlow(final QueryPlan plan) {
+        this.plan = plan;
+        this.remainingFlows = plan.remainingFlows();
+    }
+
+    @Override
+    public JsonElement flow(final JsonReader reader) {
+        return flow(reader, JigsonContext.newContext());
+    }
+
+    @Override
+    public JsonElement flow(final JsonReader reader, final JigsonContext context) {
+        try {
+            reader.setLenient(true);
+            if (isEmpty(reader)) {
+                return remainingFlows[0].flow(JsonNull.INSTANCE, context);
+            }
+            final JsonElement result = evaluate(reader, 0, context);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("Did not consume the entire document.");
+            }
+            return result;
+        } catch (final MalformedJsonException e) {
+            throw new JsonSyntaxException(e);
+        } catch (final IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Evaluates steps starting at given one against the next value of the reader.
+     */
+    private JsonElement evaluate(final JsonReader reader, final int stepIndex, final JigsonContext context) throws IOException {
+
+        if (stepIndex == plan.size()) {
+            return PARSER.parse(reader);
+        }
+        final Step step = plan.get(stepIndex);
+        if (step.isFunction()) {
+            return remainingFlows[stepIndex].flow(PARSER.parse(reader), context);
+        }
+
+        final JsonToken token = reader.peek();
+        if (JsonToken.BEGIN_OBJECT == token) {
+            return evaluateObject(reader, stepIndex, (PropertyStep) step, context);
+        } else if (JsonToken.BEGIN_ARRAY == token) {
+            return evaluateArray(reader, stepIndex, context);
+        } else if (JsonToken.NULL == token) {
+            reader.nextNull();
+            return remainingFlows[stepIndex].flow(JsonNull.INSTANCE, context);
+        }
+        return remainingFlows[stepIndex].flow(PARSER.parse(reader), context);
+    }
+
+    private JsonElement evaluateObject(final JsonReader reader,
+                                       final int stepIndex,
+                                       final PropertyStep step,
+                                       final JigsonContext context) throws IOException {
+
+        JsonElement result = null;
+        boolean isFound = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            // just like in JsonObject, the last occurrence of repeated attribute wins
+            if (step.getPropertyName().equals(reader.nextName())) {
+                result = evaluateProperty(reader, stepIndex, step, context);
+                isFound = true;
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return isFound ? result : remainingFlows[stepIndex].flow(new JsonObject(), context);
+    }
+
+    private JsonElement evaluateProperty(final JsonReader reader,
+                                         final int stepIndex,
+                                         final PropertyStep step,
+                                         final JigsonContext context) throws IOException {
+
+        final boolean isArray = JsonToken.BEGIN_ARRAY == reader.peek();
+
+        if (step.hasNoIndex() && !step.hasCriterion()) {
+            return evaluate(reader, stepIndex + 1, context);
+        } else if (step.hasNoIndex() && isArray) {
+            return filterArray(reader, stepIndex, step, context);
+        } else if (step.getIndex() != INDEX_NOT_FOUND && !step.hasCriterion() && isArray) {
+            return evaluateArrayElement(reader, stepIndex, step.getIndex(), context);
+        }
+
+        final JsonObject jsonObject = new JsonObject();
+        jsonObject.add(step.getPropertyName(), PARSER.parse(reader));
+        return remainingFlows[stepIndex].flow(jsonObject, context);
+    }
+
+    private JsonElement evaluateArrayElement(final JsonReader reader,
+                                             final int stepIndex,
+                                             final int index,
+                                             final JigsonContext context) throws IOException {
+
+        JsonElement result = null;
+        int position = 0;
+
+        reader.beginArray();
+        for (; reader.hasNext(); ++position) {
+            if (position == index) {
+                result = evaluate(reader, stepIndex + 1, context);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+
+        if (index >= position) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + position);
+        }
+        return result;
+    }
+
+    /**
+     * Fetches attribute from every {@link JsonObject} of the array. Following steps without criterion
+     * are applied to each of the objects at once, so only the final attributes are materialised.
+     */
+    private JsonElement evaluateArray(final JsonReader reader,
+                                      final int stepIndex,
+                                      final JigsonContext context) throws IOException {
+
+        final int lastStepIndex = plan.lastFanOutStep(stepIndex);
+        final JsonArray accumulator = new JsonArray();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (JsonToken.BEGIN_OBJECT == reader.peek()) {
+                final JsonElement value = fetchPath(reader, stepIndex, lastStepIndex);
+                if (Objects.nonNull(value)) {
+                    accumulator.add(value);
+                }
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+
+        final PropertyStep lastStep = (PropertyStep) plan.get(lastStepIndex);
+        return remainingFlows[lastStepIndex + 1].flow(lastStep.filterFetched(accumulator), context);
+    }
+
+    /**
+     * @return value of the attribute pointed by steps between given ones,
+     * or null when any of intermediate attributes is not a {@link JsonObject}
+     */
+    private JsonElement fetchPath(final JsonReader reader, final int stepIndex, final int lastStepIndex) throws IOException {
+
+        final String propertyName = ((PropertyStep) plan.get(stepIndex)).getPropertyName();
+        final boolean isLast = stepIndex == lastStepIndex;
+        JsonElement value = isLast ? JsonNull.INSTANCE : null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!propertyName.equals(reader.nextName())) {
+                reader.skipValue();
+            } else if (isLast) {
+                value = PARSER.parse(reader);
+            } else if (JsonToken.BEGIN_OBJECT == reader.peek()) {
+                value = fetchPath(reader, stepIndex + 1, lastStepIndex);
+            } else {
+                reader.skipValue();
+                value = null;
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+
+    /**
+     * Filters the array element by element, as configured {@link JsonArrayFilter.Strategy} does.
+     * When the next step fetches an attribute, then only the attribute of each kept {@link JsonObject} is materialised.
+     */
+    private JsonElement filterArray(final JsonReader reader,
+                                    final int stepIndex,
+                                    final PropertyStep step,
+                                    final JigsonContext context) throws IOException {
+
+        final JsonArrayFilter.Strategy strategy = context.config().filters().arrays().strategy();
+        final JsonArrayFilter filter = JsonFilterStrategyFactory.createJsonArrayFilter(strategy);
+        final boolean isAllIfAnyMatching = JsonArrayFilter.Strategy.ALL_IF_ANY_MATCHING == strategy;
+        final boolean isOnlyMatching = JsonArrayFilter.Strategy.ONLY_MATCHING == strategy;
+
+        final Criterion criterion = step.getCriterion();
+        final int nextStepIndex = stepIndex + 1;
+        final boolean isNextStepProperty = nextStepIndex < plan.size() && !plan.get(nextStepIndex).isFunction();
+        final PropertyStep nextStep = isNextStepProperty ? (PropertyStep) plan.get(nextStepIndex) : null;
+
+        final JsonArray accumulator = new JsonArray();
+        boolean isAnyKept = false;
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            final JsonElement element = PARSER.parse(reader);
+            final boolean isDecided = isAllIfAnyMatching && isAnyKept;
+            if (isDecided) {
+                // as FetchFlow does, no element is tested once any matched
+                if (!isNextStepProperty) {
+                    accumulator.add(element);
+                } else if (element.isJsonObject()) {
+                    accumulator.add(nextStep.getProperty(element.getAsJsonObject()));
+                }
+            } else if (element.isJsonObject()) {
+                final boolean isAccepted = criterion.accept(element);
+                isAnyKept |= isAccepted;
+                if (isAccepted || isAllIfAnyMatching) {
+                    accumulator.add(isNextStepProperty ? nextStep.getProperty(element.getAsJsonObject()) : element);
+                }
+            } else if (element.isJsonArray()) {
+                final JsonElement filteredElement = filter.filter(element.getAsJsonArray(), criterion);
+                isAnyKept |= !filteredElement.isJsonNull();
+                if (!isNextStepProperty && (isAllIfAnyMatching || !filteredElement.isJsonNull())) {
+                    accumulator.add(isAllIfAnyMatching ? element : filteredElement);
+                }
+            } else if (element.isJsonPrimitive() && !isAllIfAnyMatching && !isOnlyMatching) {
+                isAnyKept = true;
+                if (!isNextStepProperty) {
+                    accumulator.add(element);
+                }
+            } else if (isAllIfAnyMatching && !isNextStepProperty) {
+                accumulator.add(element);
+            }
+        }
+        reader.endArray();
+
+        if (!isAnyKept) {
+            return remainingFlows[nextStepIndex].flow(JsonNull.INSTANCE, context);
+        } else if (isNextStepProperty) {
+            return remainingFlows[nextStepIndex + 1].flow(nextStep.filterFetched(accumulator), context);
+        }
+        return remainingFlows[nextStepIndex].flow(accumulator, context);
+    }
+
+    private static boolean isEmpty(final JsonReader reader) throws IOException {
+        try {
+            reader.peek();
+            return false;
+        } catch (final EOFException e) {
+            return true;
+        }
+    }
+}
@@ -16,27 +16,22 @@
 
 package io.jigson.core.plugin;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonPrimitive;
 import io.jigson.core.JigsonConfig;
-import io.jigson.core.JigsonConfigHolder;
 import io.jigson.pipe.JigsonContext;
 import io.jigson.plugin.JsonPlugin;
 
 import java.math.BigDecimal;
+import java.util.Objects;
 
 public class AveragePlugin implements JsonPlugin {
 
     public static final AveragePlugin INSTANCE = new AveragePlugin();
     private static final String KEY = "avg";
 
-    private final int precision;
-    private final int roundingMode;
-
     private AveragePlugin() {
-        final JigsonConfig config = JigsonConfigHolder.get();
-        this.precision = config.numbers().precision();
-        this.roundingMode = config.numbers().roundingMode();
     }
 
     @Override
@@ -52,14 +47,15 @@ public class AveragePlugin implements JsonPlugin {
     @Override
     public JsonPrimitive flow(final JsonElement jsonElement, final JigsonContext context) {
 
-        final BigDecimal sum = SumPlugin.INSTANCE.flow(jsonElement).getAsBigDecimal();
-        if (jsonElement.isJsonArray()) {
-            final BigDecimal divisor = new BigDecimal(jsonElement.getAsJsonArray().size());
-            final BigDecimal average = sum.divide(divisor, precision, roundingMode);
+        if (Objects.nonNull(jsonElement) && jsonElement.isJsonArray()) {
+            final JsonArray jsonArray = jsonElement.getAsJsonArray();
+            final BigDecimal sum = NumericAggregate.ofPrimitives(jsonArray).sum();
+            final JigsonConfig config = context.config();
+            final BigDecimal divisor = new BigDecimal(jsonArray.size());
+            final BigDecimal average = sum.divide(divisor, config.numbers().precision(), config.numbers().roundingMode());
             return asJsonPrimitive(average);
         }
-        return asJsonPrimitive(sum);
-
+        return SumPlugin.INSTANCE.flow(jsonElement, context);
     }
 
     private JsonPrimitive asJsonPrimitive(final BigDecimal value) {
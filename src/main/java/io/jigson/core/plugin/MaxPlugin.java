@@ -26,11 +26,9 @@ import io.jigson.plugin.JsonPlugin;
 import java.math.BigDecimal;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.IntStream;
 
 import static io.jigson.utils.NumberUtils.MAX_VALUE;
 import static io.jigson.utils.NumberUtils.MIN_VALUE;
-import static io.jigson.utils.StreamUtils.not;
 
 public class MaxPlugin implements JsonPlugin {
 
@@ -76,16 +74,8 @@ public class MaxPlugin implements JsonPlugin {
 
     private JsonPrimitive handleArray(final JsonElement jsonElement) {
         final JsonArray jsonArray = jsonElement.getAsJsonArray();
-        final BigDecimal min =
-                IntStream.range(0, jsonArray.size())
-                        .mapToObj(jsonArray::get)
-                        .filter(Objects::nonNull)
-                        .filter(not(JsonElement::isJsonNull))
-                        .map(this::flow)
-                        .filter(JsonElement::isJsonPrimitive)
-                        .map(JsonElement::getAsBigDecimal)
-                        .reduce(MIN_VALUE, BigDecimal::max);
-        return asJsonPrimitive(min);
+        final BigDecimal max = NumericAggregate.ofNested(jsonArray, KEY).max();
+        return asJsonPrimitive(Objects.isNull(max) ? MIN_VALUE : MIN_VALUE.max(max));
     }
 
     private JsonPrimitive asJsonPrimitive(final BigDecimal value) {
@@ -0,0 +1,322 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.plugin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import static io.jigson.utils.NumberUtils.MAX_LONG_DIGITS;
+
+/**
+ * Represents count, sum, min and max of numbers in {@link JsonArray} computed in a single pass.
+ * Each number is kept as unscaled {@code long} with a scale, so most of them are accumulated
+ * without creating {@link BigDecimal}s. Once an unscaled value doesn't fit {@code long},
+ * the aggregate falls back to {@link BigDecimal} arithmetic. Either way results are exactly the same
+ * as {@link BigDecimal} ones, scale included.
+ *
+ * @author Daniel Zarzeczny
+ */
+final class NumericAggregate {
+
+    private static final long[] POWERS_OF_TEN = powersOfTen();
+    private static final char MINUS = '-';
+    private static final char PLUS = '+';
+    private static final char DOT = '.';
+
+    private final String pluginKey;
+
+    private long count;
+
+    private long sumUnscaled;
+    private int sumScale;
+    private BigDecimal bigSum;
+
+    private boolean hasExtremes;
+    private long minUnscaled;
+    private int minScale;
+    private BigDecimal bigMin;
+    private long maxUnscaled;
+    private int maxScale;
+    private BigDecimal bigMax;
+
+    private long parsedUnscaled;
+    private int parsedScale;
+
+    private NumericAggregate(final String pluginKey) {
+        this.pluginKey = pluginKey;
+    }
+
+    /**
+     * Aggregates primitive elements of given array, skipping all the others (as {@code sum()} does).
+     */
+    static NumericAggregate ofPrimitives(final JsonArray jsonArray) {
+        final NumericAggregate aggregate = new NumericAggregate(null);
+        for (int i = 0; i < jsonArray.size(); i++) {
+            final JsonElement element = jsonArray.get(i);
+            if (element.isJsonPrimitive()) {
+                aggregate.accept(element.getAsJsonPrimitive(), true);
+            }
+        }
+        return aggregate;
+    }
+
+    /**
+     * Aggregates primitive elements of given array and of all arrays nested in it, skipping nulls
+     * (as {@code min()} and {@code max()} do).
+     *
+     * @throws IllegalJsonElementException when there's a JsonObject among elements
+     */
+    static NumericAggregate ofNested(final JsonArray jsonArray, final String pluginKey) {
+        final NumericAggregate aggregate = new NumericAggregate(pluginKey);
+        aggregate.acceptNested(jsonArray, true);
+        return aggregate;
+    }
+
+    /**
+     * Aggregates elements of given array as {@link #ofPrimitives(JsonArray)} does for count and sum
+     * and as {@link #ofNested(JsonArray, String)} does for min and max, so all of them are computed in one pass.
+     *
+     * @throws IllegalJsonElementException when there's a JsonObject among elements
+     */
+    static NumericAggregate ofAll(final JsonArray jsonArray, final String pluginKey) {
+        final NumericAggregate aggregate = new NumericAggregate(pluginKey);
+        for (int i = 0; i < jsonArray.size(); i++) {
+            final JsonElement element = jsonArray.get(i);
+            if (Objects.nonNull(element) && element.isJsonArray()) {
+                aggregate.acceptNested(element.getAsJsonArray(), false);
+            } else {
+                aggregate.acceptNested(element, true);
+            }
+        }
+        return aggregate;
+    }
+
+    private void acceptNested(final JsonArray jsonArray, final boolean summed) {
+        for (int i = 0; i < jsonArray.size(); i++) {
+            acceptNested(jsonArray.get(i), summed);
+        }
+    }
+
+    private void acceptNested(final JsonElement element, final boolean summed) {
+        if (Objects.isNull(element) || element.isJsonNull()) {
+            return;
+        }
+        if (element.isJsonPrimitive()) {
+            accept(element.getAsJsonPrimitive(), summed);
+        } else if (element.isJsonArray()) {
+            acceptNested(element.getAsJsonArray(), summed);
+        } else {
+            throw new IllegalJsonElementException("Cannot execute " + pluginKey + "() on JsonObject!");
+        }
+    }
+
+    /**
+     * @return number of numbers included in the sum
+     */
+    long count() {
+        return count;
+    }
+
+    BigDecimal sum() {
+        return Objects.nonNull(bigSum) ? bigSum : BigDecimal.valueOf(sumUnscaled, sumScale);
+    }
+
+    /**
+     * @return the first of the lowest numbers or null when nothing has been aggregated
+     */
+    BigDecimal min() {
+        if (!hasExtremes) {
+            return null;
+        }
+        return Objects.nonNull(bigMin) ? bigMin : BigDecimal.valueOf(minUnscaled, minScale);
+    }
+
+    /**
+     * @return the first of the greatest numbers or null when nothing has been aggregated
+     */
+    BigDecimal max() {
+        if (!hasExtremes) {
+            return null;
+        }
+        return Objects.nonNull(bigMax) ? bigMax : BigDecimal.valueOf(maxUnscaled, maxScale);
+    }
+
+    private void accept(final JsonPrimitive jsonPrimitive, final boolean summed) {
+        final Object number = jsonPrimitive.isNumber() ? jsonPrimitive.getAsNumber() : null;
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            accept(((Number) number).longValue(), 0, summed);
+        } else if (number instanceof BigDecimal) {
+            accept((BigDecimal) number, summed);
+        } else {
+            final String value = jsonPrimitive.getAsString();
+            if (parse(value)) {
+                accept(parsedUnscaled, parsedScale, summed);
+            } else {
+                accept(new BigDecimal(value), summed);
+            }
+        }
+    }
+
+    private void accept(final long unscaled, final int scale, final boolean summed) {
+        if (summed) {
+            count++;
+            addToSum(unscaled, scale);
+        }
+        if (!hasExtremes) {
+            hasExtremes = true;
+            minUnscaled = maxUnscaled = unscaled;
+            minScale = maxScale = scale;
+            return;
+        }
+        if (Objects.isNull(bigMin)) {
+            if (compare(unscaled, scale, minUnscaled, minScale) < 0) {
+                minUnscaled = unscaled;
+                minScale = scale;
+            }
+        } else if (BigDecimal.valueOf(unscaled, scale).compareTo(bigMin) < 0) {
+            bigMin = null;
+            minUnscaled = unscaled;
+            minScale = scale;
+        }
+        if (Objects.isNull(bigMax)) {
+            if (compare(unscaled, scale, maxUnscaled, maxScale) > 0) {
+                maxUnscaled = unscaled;
+                maxScale = scale;
+            }
+        } else if (BigDecimal.valueOf(unscaled, scale).compareTo(bigMax) > 0) {
+            bigMax = null;
+            maxUnscaled = unscaled;
+            maxScale = scale;
+        }
+    }
+
+    private void accept(final BigDecimal value, final boolean summed) {
+        if (summed) {
+            count++;
+            bigSum = sum().add(value);
+        }
+        if (!hasExtremes) {
+            hasExtremes = true;
+            bigMin = bigMax = value;
+            return;
+        }
+        if (value.compareTo(min()) < 0) {
+            bigMin = value;
+        }
+        if (value.compareTo(max()) > 0) {
+            bigMax = value;
+        }
+    }
+
+    private void addToSum(final long unscaled, final int scale) {
+        if (Objects.isNull(bigSum)) {
+            try {
+                final int targetScale = Math.max(sumScale, scale);
+                final long sum = Math.addExact(rescale(sumUnscaled, sumScale, targetScale), rescale(unscaled, scale, targetScale));
+                sumUnscaled = sum;
+                sumScale = targetScale;
+                return;
+            } catch (final ArithmeticException e) {
+                bigSum = BigDecimal.valueOf(sumUnscaled, sumScale);
+            }
+        }
+        bigSum = bigSum.add(BigDecimal.valueOf(unscaled, scale));
+    }
+
+    private static int compare(final long unscaled, final int scale, final long otherUnscaled, final int otherScale) {
+        if (scale == otherScale) {
+            return Long.compare(unscaled, otherUnscaled);
+        }
+        try {
+            final int targetScale = Math.max(scale, otherScale);
+            return Long.compare(rescale(unscaled, scale, targetScale), rescale(otherUnscaled, otherScale, targetScale));
+        } catch (final ArithmeticException e) {
+            return BigDecimal.valueOf(unscaled, scale).compareTo(BigDecimal.valueOf(otherUnscaled, otherScale));
+        }
+    }
+
+    /**
+     * @throws ArithmeticException when rescaled value doesn't fit long
+     */
+    private static long rescale(final long unscaled, final int scale, final int targetScale) {
+        final int difference = targetScale - scale;
+        if (difference == 0 || unscaled == 0) {
+            return unscaled;
+        }
+        if (difference >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("long overflow");
+        }
+        return Math.multiplyExact(unscaled, POWERS_OF_TEN[difference]);
+    }
+
+    /**
+     * Parses plain decimal number of at most {@link io.jigson.utils.NumberUtils#MAX_LONG_DIGITS} digits
+     * into {@link #parsedUnscaled} and {@link #parsedScale}.
+     *
+     * @return false when given value should be parsed by {@link BigDecimal} instead
+     */
+    private boolean parse(final String value) {
+
+        final int length = value.length();
+        int position = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == MINUS || value.charAt(0) == PLUS)) {
+            negative = value.charAt(0) == MINUS;
+            position++;
+        }
+
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; position < length; position++) {
+            final char character = value.charAt(position);
+            if (character >= '0' && character <= '9') {
+                if (++digits > MAX_LONG_DIGITS) {
+                    return false;
+                }
+                unscaled = unscaled * 10 + (character - '0');
+                if (fraction) {
+                    scale++;
+                }
+            } else if (character == DOT && !fraction) {
+                fraction = true;
+            } else {
+                return false;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        parsedUnscaled = negative ? -unscaled : unscaled;
+        parsedScale = scale;
+        return true;
+    }
+
+    private static long[] powersOfTen() {
+        final long[] powers = new long[MAX_LONG_DIGITS + 1];
+        powers[0] = 1;
+        for (int i = 1; i < powers.length; i++) {
+            powers[i] = powers[i - 1] * 10;
+        }
+        return powers;
+    }
+}
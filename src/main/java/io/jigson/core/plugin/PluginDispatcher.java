@@ -16,23 +16,36 @@
 
 package io.jigson.core.plugin;
 
-import com.google.common.collect.Maps;
 import com.google.gson.JsonElement;
-import io.jigson.expression.predicate.Predicate;
+import io.jigson.metrics.JigsonMetrics;
 import io.jigson.pipe.JigsonContext;
 import io.jigson.plugin.JsonPlugin;
 import io.jigson.plugin.PluginRegistry;
-import org.apache.commons.lang3.StringUtils;
 
-import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.INDEX_NOT_FOUND;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Routes plugin calls, eg. {@code sum()}, to plugins registered under exactly the same key.
+ * Plugins are looked up in the immutable snapshot of {@link PluginRegistry}, which is replaced
+ * only when a plugin is registered or deregistered.
+ *
+ * @author Daniel Zarzeczny
+ */
 public class PluginDispatcher {
 
+    private static final char OPEN_BRACKET = '(';
 
     private PluginDispatcher() {
     }
 
+    /**
+     * Executes plugin called by given path, looking it up in the registry of given context.
+     */
     public static JsonElement dispatch(final JsonElement jsonElement,
                                        final String pluginKey,
                                        final JigsonContext context) {
@@ -40,50 +53,53 @@ public class PluginDispatcher {
         if (Objects.isNull(jsonElement)) {
             throw new IllegalArgumentException();
         }
-        return new Router(PluginRegistry.INSTANCE).route(pluginKey, jsonElement, context);
+        return
+                resolve(context.pluginRegistry(), pluginKey)
+                        .map(plugin -> dispatch(jsonElement, plugin, context))
+                        .orElseThrow(UnrecognizedPluginException::new);
     }
 
+    public static JsonElement dispatch(final JsonElement jsonElement,
+                                       final JsonPlugin plugin,
+                                       final JigsonContext context) {
 
-    private static class Router {
-
-        private final Map<RoutingPredicate, JsonPlugin> routingRules = Maps.newHashMap();
-
-        private Router(final PluginRegistry registry) {
-            registry.getPlugins().forEach(this::withPlugin);
+        if (Objects.isNull(jsonElement)) {
+            throw new IllegalArgumentException();
         }
-
-        private Router withPlugin(final JsonPlugin plugin) {
-            final RoutingPredicate predicate = new RoutingPredicate(plugin);
-            routingRules.put(predicate, plugin);
-            return this;
+        final JigsonMetrics metrics = context.config().metrics().recorder();
+        if (!metrics.isEnabled()) {
+            return plugin.flow(jsonElement, context);
         }
-
-        private JsonElement route(final String key, final JsonElement jsonElement, final JigsonContext context) {
-
-            return
-                    routingRules
-                            .keySet()
-                            .stream()
-                            .filter(predicate -> predicate.accept(key))
-                            .findFirst()
-                            .map(routingRules::get)
-                            .map(plugin -> plugin.flow(jsonElement, context))
-                            .orElseThrow(UnrecognizedPluginException::new);
+        final long start = System.nanoTime();
+        try {
+            return plugin.flow(jsonElement, context);
+        } finally {
+            metrics.onPluginDispatch(plugin.getKey(), System.nanoTime() - start);
         }
     }
 
-    private static class RoutingPredicate implements Predicate<String> {
-
-        private final String pluginKey;
+    /**
+     * @param pluginCall plugin key, optionally followed by brackets, eg. {@code sum()}
+     */
+    public static Optional<JsonPlugin> resolve(final String pluginCall) {
+        return resolve(PluginRegistry.INSTANCE, pluginCall);
+    }
 
-        private RoutingPredicate(final JsonPlugin plugin) {
-            this.pluginKey = plugin.getKey();
-        }
+    /**
+     * @param pluginCall plugin key, optionally followed by brackets, eg. {@code sum()}
+     */
+    public static Optional<JsonPlugin> resolve(final PluginRegistry registry, final String pluginCall) {
+        return Optional.ofNullable(registry.get(findKey(pluginCall)));
+    }
 
-        @Override
-        public boolean accept(final String key) {
-            return StringUtils.isNotBlank(key) && key.startsWith(pluginKey);
+    /**
+     * @return plugin key given in plugin call, ie. everything before opening bracket
+     */
+    static String findKey(final String pluginCall) {
+        if (isBlank(pluginCall)) {
+            return EMPTY;
         }
+        final int bracketIndex = pluginCall.indexOf(OPEN_BRACKET);
+        return (bracketIndex == INDEX_NOT_FOUND ? pluginCall : pluginCall.substring(0, bracketIndex)).trim();
     }
-
 }
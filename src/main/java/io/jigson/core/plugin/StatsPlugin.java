@@ -0,0 +1,136 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.plugin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.jigson.core.JigsonConfig;
+import io.jigson.json.pipe.ProcessingPipe;
+import io.jigson.pipe.JigsonContext;
+import io.jigson.plugin.JsonPlugin;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+import java.util.Optional;
+
+import static io.jigson.utils.NumberUtils.MAX_VALUE;
+import static io.jigson.utils.NumberUtils.MIN_VALUE;
+
+/**
+ * Resolves {@code count}, {@code sum}, {@code min}, {@code max} and {@code avg} of {@link JsonElement} at once,
+ * in a single pass over its elements. Each of them is the same as the result of corresponding plugin,
+ * except {@code avg} of an empty array, which is {@link JsonNull} rather than an exception.
+ *
+ * @author Daniel Zarzeczny
+ */
+public class StatsPlugin implements JsonPlugin {
+
+    public static final StatsPlugin INSTANCE = new StatsPlugin();
+    private static final String KEY = "stats";
+
+    private static final String COUNT = "count";
+    private static final String SUM = "sum";
+    private static final String MIN = "min";
+    private static final String MAX = "max";
+    private static final String AVG = "avg";
+
+    private StatsPlugin() {
+    }
+
+    @Override
+    public String getKey() {
+        return KEY;
+    }
+
+    @Override
+    public JsonElement flow(final JsonElement jsonElement) {
+        return flow(jsonElement, JigsonContext.newContext());
+    }
+
+    @Override
+    public JsonObject flow(final JsonElement jsonElement, final JigsonContext context) {
+
+        final Optional<JsonElement> stats =
+                ProcessingPipe.from(jsonElement)
+                        .whenNullOrJsonNull(this::handleNull)
+                        .whenJsonPrimitive(this::handlePrimitive)
+                        .whenJsonObject(this::handleObject)
+                        .whenJsonArray(array -> handleArray(array, context))
+                        .process()
+                        .get();
+
+        return stats
+                .map(JsonElement::getAsJsonObject)
+                .orElseGet(JsonObject::new);
+    }
+
+    private JsonObject handleNull(final JsonElement jsonElement) {
+        throw new IllegalJsonElementException("Cannot execute stats() on JsonNull!");
+    }
+
+    private JsonObject handlePrimitive(final JsonElement jsonElement) {
+        final BigDecimal value = jsonElement.getAsBigDecimal();
+        return asJsonObject(1, value, value, value, new JsonPrimitive(value));
+    }
+
+    private JsonObject handleObject(final JsonElement jsonElement) {
+        throw new IllegalJsonElementException("Cannot execute stats() on JsonObject!");
+    }
+
+    private JsonObject handleArray(final JsonElement jsonElement, final JigsonContext context) {
+
+        final JsonArray jsonArray = jsonElement.getAsJsonArray();
+        final NumericAggregate aggregate = NumericAggregate.ofAll(jsonArray, KEY);
+        final BigDecimal sum = aggregate.sum();
+        final BigDecimal min = aggregate.min();
+        final BigDecimal max = aggregate.max();
+
+        final JsonElement average;
+        if (jsonArray.size() == 0) {
+            average = JsonNull.INSTANCE;
+        } else {
+            final JigsonConfig config = context.config();
+            final BigDecimal divisor = new BigDecimal(jsonArray.size());
+            average = new JsonPrimitive(sum.divide(divisor, config.numbers().precision(), RoundingMode.valueOf(config.numbers().roundingMode())));
+        }
+
+        return asJsonObject(
+                jsonArray.size(),
+                sum,
+                Objects.isNull(min) ? MAX_VALUE : MAX_VALUE.min(min),
+                Objects.isNull(max) ? MIN_VALUE : MIN_VALUE.max(max),
+                average);
+    }
+
+    private JsonObject asJsonObject(final int count,
+                                    final BigDecimal sum,
+                                    final BigDecimal min,
+                                    final BigDecimal max,
+                                    final JsonElement average) {
+        final JsonObject stats = new JsonObject();
+        stats.addProperty(COUNT, count);
+        stats.addProperty(SUM, sum);
+        stats.addProperty(MIN, min);
+        stats.addProperty(MAX, max);
+        stats.add(AVG, average);
+        return stats;
+    }
+}
@@ -25,7 +25,6 @@ import io.jigson.plugin.JsonPlugin;
 
 import java.math.BigDecimal;
 import java.util.Optional;
-import java.util.stream.IntStream;
 
 public class SumPlugin implements JsonPlugin {
 
@@ -77,13 +76,7 @@ public class SumPlugin implements JsonPlugin {
 
     private JsonPrimitive handleArray(final JsonElement jsonElement) {
         final JsonArray jsonArray = jsonElement.getAsJsonArray();
-        final BigDecimal sum = IntStream.range(0, jsonArray.size())
-                .mapToObj(jsonArray::get)
-                .filter(JsonElement::isJsonPrimitive)
-                .map(JsonElement::getAsJsonPrimitive)
-                .map(JsonPrimitive::getAsBigDecimal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        return asJsonPrimitive(sum);
+        return asJsonPrimitive(NumericAggregate.ofPrimitives(jsonArray).sum());
     }
 
     private JsonPrimitive asJsonPrimitive(final BigDecimal value) {
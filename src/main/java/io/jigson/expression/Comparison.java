@@ -0,0 +1,81 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.expression;
+
+/**
+ * Represents a comparison operator, eg. {@code >=}.
+ *
+ * @author Daniel Zarzeczny
+ */
+public enum Comparison {
+
+    EQ(Operators.EQ),
+    NEQ(Operators.NEQ),
+    GT(Operators.GT),
+    GTET(Operators.GTET),
+    LT(Operators.LT),
+    LTET(Operators.LTET);
+
+    private final String operator;
+
+    Comparison(final String operator) {
+        this.operator = operator;
+    }
+
+    public static Comparison from(final String operator) {
+        for (final Comparison comparison : values()) {
+            if (comparison.operator.equals(operator)) {
+                return comparison;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported operator: " + operator + "!");
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    /**
+     * @return true if operands must be numbers, false if they might be compared for equality only
+     */
+    public boolean isOrdering() {
+        return this != EQ && this != NEQ;
+    }
+
+    /**
+     * @param comparisonResult result of comparing left operand to right one,
+     *                         as defined by {@link Comparable#compareTo(Object)}
+     */
+    public boolean test(final int comparisonResult) {
+        switch (this) {
+            case EQ:
+                return comparisonResult == 0;
+            case NEQ:
+                return comparisonResult != 0;
+            case GT:
+                return comparisonResult > 0;
+            case GTET:
+                return comparisonResult >= 0;
+            case LT:
+                return comparisonResult < 0;
+            case LTET:
+                return comparisonResult <= 0;
+            default:
+                throw new IllegalStateException();
+        }
+    }
+}
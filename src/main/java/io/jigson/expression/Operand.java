@@ -0,0 +1,85 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.expression;
+
+import java.math.BigDecimal;
+
+import static io.jigson.utils.NumberUtils.MAX_LONG_DIGITS;
+import static io.jigson.utils.NumberUtils.isDigits;
+import static io.jigson.utils.NumberUtils.parseDigits;
+
+/**
+ * Represents a raw value of comparison, eg. {@code 25} in {@code age>25}, parsed once into its typed form.
+ * Just like before, only digits are recognised as a number and everything else is a text.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class Operand {
+
+    enum Type {
+        LONG, DECIMAL, TEXT
+    }
+
+    private final Type type;
+    private final String text;
+    private final long longValue;
+    private final BigDecimal decimalValue;
+
+    private Operand(final Type type, final String text, final long longValue, final BigDecimal decimalValue) {
+        this.type = type;
+        this.text = text;
+        this.longValue = longValue;
+        this.decimalValue = decimalValue;
+    }
+
+    public static Operand parse(final String rawValue) {
+        final String text = String.valueOf(rawValue).trim();
+        if (!isDigits(text, 0)) {
+            return new Operand(Type.TEXT, text, 0, null);
+        } else if (text.length() <= MAX_LONG_DIGITS) {
+            final long value = parseDigits(text, 0);
+            return new Operand(Type.LONG, text, value, BigDecimal.valueOf(value));
+        }
+        return new Operand(Type.DECIMAL, text, 0, new BigDecimal(text));
+    }
+
+    public boolean isNumber() {
+        return type != Type.TEXT;
+    }
+
+    /**
+     * @return true if the value is a number fitting in {@code long}
+     */
+    public boolean isLong() {
+        return type == Type.LONG;
+    }
+
+    public long getLongValue() {
+        return longValue;
+    }
+
+    /**
+     * @return numeric value or null if it's a text
+     */
+    public BigDecimal getDecimalValue() {
+        return decimalValue;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -17,8 +17,8 @@
 package io.jigson.expression;
 
 import com.google.common.collect.Sets;
+import io.jigson.core.Lexer;
 import io.jigson.core.Token;
-import io.jigson.core.TokenizerFactory;
 
 import java.util.Collections;
 import java.util.Set;
@@ -46,7 +46,7 @@ public final class Operators {
 
     public static String findLogicalOperator(final String predicate) {
         return
-                TokenizerFactory.createCriteriaTokenizer()
+                Lexer.CRITERIA
                         .tokenize(predicate)
                         .stream()
                         .filter(t -> t.getIndex() == Token.AND || t.getIndex() == Token.OR)
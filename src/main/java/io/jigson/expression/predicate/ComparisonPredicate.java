@@ -0,0 +1,147 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.expression.predicate;
+
+import io.jigson.expression.Comparison;
+import io.jigson.expression.Operand;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static io.jigson.utils.NumberUtils.MAX_DOUBLE_DIGITS;
+import static io.jigson.utils.NumberUtils.MAX_EXACT_DOUBLE;
+import static io.jigson.utils.NumberUtils.MAX_LONG_DIGITS;
+import static io.jigson.utils.NumberUtils.countDigits;
+import static io.jigson.utils.NumberUtils.isDigits;
+import static io.jigson.utils.NumberUtils.parseDigits;
+
+/**
+ * Represents a typed comparison of the accepted value (left operand) with a constant (right operand).
+ * The right operand is parsed once, when the predicate is created. The left one is compared
+ * as {@code long} or {@code double} whenever it's exact, and as {@link BigDecimal} otherwise.
+ * <p>
+ * When any of the operands is not a number, then they are compared as texts,
+ * which is possible for {@link Comparison#EQ} and {@link Comparison#NEQ} only.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class ComparisonPredicate implements Predicate<String> {
+
+    private static final char MINUS = '-';
+
+    private final Comparison comparison;
+    private final Operand operand;
+
+    private ComparisonPredicate(final Comparison comparison, final Operand operand) {
+        this.comparison = comparison;
+        this.operand = operand;
+    }
+
+    public static ComparisonPredicate from(final String operator, final String rightOperand) {
+        return from(Comparison.from(operator), rightOperand);
+    }
+
+    public static ComparisonPredicate from(final Comparison comparison, final String rightOperand) {
+        return new ComparisonPredicate(comparison, Operand.parse(rightOperand));
+    }
+
+    /**
+     * Accepts textual value, which is a number only if it consists of digits.
+     */
+    @Override
+    public boolean accept(final String leftOperand) {
+        final String text = String.valueOf(leftOperand).trim();
+        if (!isDigits(text, 0)) {
+            return acceptText(text);
+        } else if (text.length() <= MAX_LONG_DIGITS) {
+            return accept(parseDigits(text, 0));
+        }
+        return accept(new BigDecimal(text));
+    }
+
+    /**
+     * Accepts numeric value of any type, eg. one held by {@link com.google.gson.JsonPrimitive}.
+     */
+    public boolean acceptNumber(final Number leftOperand) {
+        if (leftOperand instanceof Integer || leftOperand instanceof Long
+                || leftOperand instanceof Short || leftOperand instanceof Byte) {
+            return accept(leftOperand.longValue());
+        } else if (leftOperand instanceof Double || leftOperand instanceof Float) {
+            return accept(leftOperand.doubleValue());
+        } else if (leftOperand instanceof BigDecimal) {
+            return accept((BigDecimal) leftOperand);
+        } else if (leftOperand instanceof BigInteger) {
+            return accept(new BigDecimal((BigInteger) leftOperand));
+        }
+        return acceptNumber(leftOperand.toString());
+    }
+
+    public boolean accept(final long leftOperand) {
+        if (operand.isLong()) {
+            return comparison.test(Long.compare(leftOperand, operand.getLongValue()));
+        } else if (operand.isNumber()) {
+            return comparison.test(BigDecimal.valueOf(leftOperand).compareTo(operand.getDecimalValue()));
+        }
+        return acceptText(String.valueOf(leftOperand));
+    }
+
+    public boolean accept(final double leftOperand) {
+        if (Double.isNaN(leftOperand) || Double.isInfinite(leftOperand)) {
+            return acceptText(String.valueOf(leftOperand));
+        } else if (operand.isLong() && operand.getLongValue() <= MAX_EXACT_DOUBLE) {
+            final double rightOperand = operand.getLongValue();
+            return comparison.test(leftOperand < rightOperand ? -1 : (leftOperand > rightOperand ? 1 : 0));
+        } else if (operand.isNumber()) {
+            return comparison.test(new BigDecimal(leftOperand).compareTo(operand.getDecimalValue()));
+        }
+        return acceptText(String.valueOf(leftOperand));
+    }
+
+    public boolean accept(final BigDecimal leftOperand) {
+        if (operand.isNumber()) {
+            return comparison.test(leftOperand.compareTo(operand.getDecimalValue()));
+        }
+        return acceptText(leftOperand.toString());
+    }
+
+    /**
+     * Accepts number written as JSON, eg. {@code -12.5}. It's parsed to the cheapest exact type.
+     */
+    private boolean acceptNumber(final String number) {
+        final int offset = !number.isEmpty() && number.charAt(0) == MINUS ? 1 : 0;
+        if (isDigits(number, offset) && number.length() - offset <= MAX_LONG_DIGITS) {
+            final long value = parseDigits(number, offset);
+            return accept(offset == 0 ? value : -value);
+        }
+        final int digits = countDigits(number);
+        if (digits > 0 && digits <= MAX_DOUBLE_DIGITS) {
+            return accept(Double.parseDouble(number));
+        }
+        try {
+            return accept(new BigDecimal(number));
+        } catch (final NumberFormatException e) {
+            return acceptText(number);
+        }
+    }
+
+    private boolean acceptText(final String leftOperand) {
+        if (comparison.isOrdering()) {
+            throw new IllegalArgumentException("Not a number!");
+        }
+        return comparison.test(leftOperand.equals(operand.getText()) ? 0 : 1);
+    }
+}
@@ -16,9 +16,7 @@
 
 package io.jigson.expression.predicate;
 
-import java.math.BigDecimal;
-
-import static org.apache.commons.lang3.StringUtils.isNumeric;
+import io.jigson.expression.Comparison;
 
 public class GreaterThanEqualToPredicate<T> implements Predicate<T> {
 
@@ -30,15 +28,6 @@ public class GreaterThanEqualToPredicate<T> implements Predicate<T> {
 
     @Override
     public boolean accept(final T right) {
-
-        final String leftValue = String.valueOf(left);
-        final String rightValue = String.valueOf(right);
-
-        if (isNumeric(leftValue) && isNumeric(rightValue)) {
-            final BigDecimal one = new BigDecimal(leftValue);
-            final BigDecimal two = new BigDecimal(rightValue);
-            return one.compareTo(two) >= 0;
-        }
-        throw new IllegalArgumentException("Not a number!");
+        return ComparisonPredicate.from(Comparison.GTET, String.valueOf(right)).accept(String.valueOf(left));
     }
 }
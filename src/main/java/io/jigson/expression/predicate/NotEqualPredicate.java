@@ -16,9 +16,7 @@
 
 package io.jigson.expression.predicate;
 
-import java.math.BigDecimal;
-
-import static org.apache.commons.lang3.StringUtils.isNumeric;
+import io.jigson.expression.Comparison;
 
 
 public class NotEqualPredicate<T> implements Predicate<T> {
@@ -31,16 +29,6 @@ public class NotEqualPredicate<T> implements Predicate<T> {
 
     @Override
     public boolean accept(final T right) {
-
-        final String leftValue = String.valueOf(left);
-        final String rightValue = String.valueOf(right);
-
-        if (isNumeric(leftValue) && isNumeric(rightValue)) {
-            final BigDecimal one = new BigDecimal(leftValue);
-            final BigDecimal two = new BigDecimal(rightValue);
-            return one.compareTo(two) != 0;
-        } else {
-            return !leftValue.equals(rightValue);
-        }
+        return ComparisonPredicate.from(Comparison.NEQ, String.valueOf(right)).accept(String.valueOf(left));
     }
 }
@@ -0,0 +1,46 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.json.expression;
+
+import com.google.gson.JsonElement;
+
+import java.util.List;
+
+/**
+ * Represents a conjunction of criteria, eg. {@code age>20&&city=Winterfell}.
+ * Evaluation stops at the first rejecting criterion.
+ *
+ * @author Daniel Zarzeczny
+ */
+final class AndCriterion implements Criterion {
+
+    private final Criterion[] criteria;
+
+    AndCriterion(final List<Criterion> criteria) {
+        this.criteria = criteria.toArray(new Criterion[0]);
+    }
+
+    @Override
+    public boolean accept(final JsonElement jsonElement) {
+        for (final Criterion criterion : criteria) {
+            if (!criterion.accept(jsonElement)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
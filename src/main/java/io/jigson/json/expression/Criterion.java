@@ -0,0 +1,36 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.json.expression;
+
+import com.google.gson.JsonElement;
+import io.jigson.expression.predicate.Predicate;
+
+/**
+ * Represents a compiled filtering criterion, eg. {@code firstName=John&&age<25}.
+ * It's immutable, so once compiled by {@link CriterionCompiler} it might be evaluated
+ * against any number of {@link JsonElement}s, from any thread.
+ *
+ * @author Daniel Zarzeczny
+ */
+@FunctionalInterface
+public interface Criterion extends Predicate<JsonElement> {
+
+    /**
+     * Criterion accepting every element, used when no criterion is given.
+     */
+    Criterion ALWAYS_TRUE = jsonElement -> true;
+}
@@ -0,0 +1,102 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.json.expression;
+
+import io.jigson.core.Lexer;
+import io.jigson.core.Token;
+import io.jigson.json.pipe.IllegalCriteriaException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Represents a compiler turning textual criterion, eg. {@code firstName=John&&age<25||age>60},
+ * into a tree of {@link Criterion}s. The criterion is tokenized only once, so evaluating
+ * the tree doesn't involve any further parsing.
+ * <p>
+ * {@code &&} binds tighter than {@code ||}, thus {@code a=1||b=2&&c=3} is compiled as {@code a=1||(b=2&&c=3)}.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class CriterionCompiler {
+
+    private static final int COMPARISON_TOKENS_AMOUNT = 3;
+    private static final String SPACE = " ";
+
+    private CriterionCompiler() {
+    }
+
+    /**
+     * @return compiled criterion, accepting every element when the given one is blank
+     * @throws IllegalCriteriaException when any of comparisons is malformed
+     */
+    public static Criterion compile(final String criterion) {
+
+        final String trimmedCriterion = Optional.ofNullable(criterion).orElse(EMPTY).trim().replace(SPACE, EMPTY);
+        if (isBlank(trimmedCriterion)) {
+            return Criterion.ALWAYS_TRUE;
+        }
+
+        final List<Token> tokens = Lexer.CRITERIA.tokenize(trimmedCriterion);
+        final List<Criterion> alternatives = new ArrayList<>();
+        List<Criterion> conjunction = new ArrayList<>();
+        int comparisonStart = 0;
+
+        for (int i = 0; i <= tokens.size(); ++i) {
+            final int tokenType = i < tokens.size() ? tokens.get(i).getIndex() : Token.OR;
+            if (Token.AND == tokenType || Token.OR == tokenType) {
+                conjunction.add(compileComparison(tokens.subList(comparisonStart, i)));
+                comparisonStart = i + 1;
+                if (Token.OR == tokenType) {
+                    alternatives.add(combine(conjunction, AndCriterion::new));
+                    conjunction = new ArrayList<>();
+                }
+            }
+        }
+        return combine(alternatives, OrCriterion::new);
+    }
+
+    private static Criterion combine(final List<Criterion> criteria, final Function<List<Criterion>, Criterion> combiner) {
+        return criteria.size() == 1 ? criteria.get(0) : combiner.apply(criteria);
+    }
+
+    private static Criterion compileComparison(final List<Token> tokens) {
+        if (tokens.size() == COMPARISON_TOKENS_AMOUNT
+                && isOperand(tokens.get(0))
+                && isComparisonOperator(tokens.get(1))
+                && isOperand(tokens.get(2))) {
+            return JsonPredicate.from(tokens.get(0).getToken(), tokens.get(1).getToken(), tokens.get(2).getToken());
+        }
+        throw new IllegalCriteriaException();
+    }
+
+    private static boolean isOperand(final Token token) {
+        return Token.VARIABLE == token.getIndex() || Token.NUMBER == token.getIndex();
+    }
+
+    private static boolean isComparisonOperator(final Token token) {
+        final int tokenType = token.getIndex();
+        return Token.EQ == tokenType || Token.NEQ == tokenType
+                || Token.GT == tokenType || Token.GTET == tokenType
+                || Token.LT == tokenType || Token.LTET == tokenType;
+    }
+}
@@ -17,15 +17,9 @@
 package io.jigson.json.expression;
 
 import com.google.gson.JsonElement;
-import io.jigson.expression.ExpressionFactory;
 import io.jigson.expression.SimpleExpression;
-import org.apache.commons.lang3.StringUtils;
 
-import java.util.Arrays;
-import java.util.List;
-
-import static io.jigson.expression.Operators.*;
-import static org.apache.commons.lang3.StringUtils.*;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
 
 public class JsonExpression implements SimpleExpression {
 
@@ -45,48 +39,6 @@ public class JsonExpression implements SimpleExpression {
 
     @Override
     public Boolean interpret() {
-        return isBlank(criterion) || createExpression(jsonElement).interpret();
-    }
-
-    private JsonExpression createExpression(final JsonElement jsonElement) {
-
-        final String logicalOperator = findLogicalOperator(criterion);
-
-        if (isNotBlank(logicalOperator)) {
-            final boolean initialState = resolveInitialState(logicalOperator);
-
-            final List<String> criteria = splitCriterionIfComplex(logicalOperator);
-            final Boolean result =
-                    criteria
-                            .stream()
-                            .map(c -> createPredicate(c).accept(jsonElement))
-                            .reduce(initialState, (a, b) -> interpret(a, logicalOperator, b));
-            return JsonExpressionFactory.from(result);
-        }
-        final boolean isAccepted = JsonPredicate.from(criterion).accept(jsonElement);
-        return JsonExpressionFactory.from(isAccepted);
-    }
-
-    private JsonPredicate createPredicate(final String criterion) {
-        return JsonPredicate.from(criterion);
-    }
-
-    private List<String> splitCriterionIfComplex(final String logicalOperator) {
-        return Arrays.asList(StringUtils.split(criterion, logicalOperator));
-    }
-
-    private boolean resolveInitialState(final String logicalOperator) {
-        if (AND.equals(logicalOperator)) {
-            return Boolean.TRUE;
-        } else if (OR.equals(logicalOperator)) {
-            return Boolean.FALSE;
-        }
-        throw new IllegalArgumentException("Couldn't not recognize logical operator!");
-    }
-
-    private Boolean interpret(final Boolean left, final String logicalOperator, final Boolean right) {
-        final JsonExpression leftExpression = JsonExpressionFactory.from(left);
-        final JsonExpression rightExpression = JsonExpressionFactory.from(right);
-        return ExpressionFactory.booleanExpression(leftExpression, logicalOperator, rightExpression).interpret();
+        return CriterionCompiler.compile(criterion).accept(jsonElement);
     }
 }
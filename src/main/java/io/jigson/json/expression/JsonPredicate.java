@@ -21,10 +21,10 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import io.jigson.core.JigsonConfigHolder;
+import io.jigson.core.Lexer;
 import io.jigson.core.Token;
-import io.jigson.core.TokenizerFactory;
-import io.jigson.expression.ExpressionFactory;
-import io.jigson.expression.predicate.Predicate;
+import io.jigson.expression.Operators;
+import io.jigson.expression.predicate.ComparisonPredicate;
 import io.jigson.json.filter.JsonArrayFilter;
 import io.jigson.json.filter.strategy.JsonFilterStrategyFactory;
 import io.jigson.json.pipe.IllegalCriteriaException;
@@ -35,27 +35,37 @@ import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 
 
-public class JsonPredicate implements Predicate<JsonElement> {
+/**
+ * Represents a single comparison, eg. {@code age>20}.
+ * The comparison operator and the value are resolved once, when the predicate is created,
+ * while numbers held by {@link JsonPrimitive}s are compared without converting them to texts.
+ *
+ * @author Daniel Zarzeczny
+ */
+public class JsonPredicate implements Criterion {
 
 
     private static final int CRITERION_TOKENS_AMOUNT = 3;
     private static final String SPACE = " ";
 
-    private final String criterion;
     private final String propertyName;
-    private final String operator;
-    private final String propertyValue;
-
-    private JsonPredicate(final String criterion) {
-        this.criterion = criterion;
-        final List<String> tokens = getTokens();
-        this.propertyName = tokens.get(0);
-        this.operator = tokens.get(1);
-        this.propertyValue = tokens.get(2);
+    private final ComparisonPredicate comparison;
+
+    private JsonPredicate(final String propertyName, final String operator, final String propertyValue) {
+        if (!Operators.comparisonOperators().contains(operator)) {
+            throw new IllegalCriteriaException();
+        }
+        this.propertyName = propertyName;
+        this.comparison = ComparisonPredicate.from(operator, propertyValue);
     }
 
     public static JsonPredicate from(final String criterion) {
-        return new JsonPredicate(criterion);
+        final List<String> tokens = getTokens(criterion);
+        return new JsonPredicate(tokens.get(0), tokens.get(1), tokens.get(2));
+    }
+
+    static JsonPredicate from(final String propertyName, final String operator, final String propertyValue) {
+        return new JsonPredicate(propertyName, operator, propertyValue);
     }
 
     @Override
@@ -70,28 +80,29 @@ public class JsonPredicate implements Predicate<JsonElement> {
         throw new IllegalArgumentException("JsonElement type not recognized!");
     }
 
-    private Boolean accept(final JsonPrimitive jsonPrimitive) {
-        return ExpressionFactory.booleanExpression(jsonPrimitive.getAsString(), operator, propertyValue).interpret();
+    private boolean accept(final JsonPrimitive jsonPrimitive) {
+        if (jsonPrimitive.isNumber()) {
+            return comparison.acceptNumber(jsonPrimitive.getAsNumber());
+        }
+        return comparison.accept(jsonPrimitive.getAsString());
     }
 
-    private Boolean accept(final JsonObject jsonObject) {
-        final String actualValue = jsonObject.getAsJsonPrimitive(propertyName).getAsString();
-        return ExpressionFactory.booleanExpression(actualValue, operator, propertyValue).interpret();
+    private boolean accept(final JsonObject jsonObject) {
+        return accept(jsonObject.getAsJsonPrimitive(propertyName));
     }
 
-    private Boolean accept(final JsonArray jsonArray) {
+    private boolean accept(final JsonArray jsonArray) {
         final JsonArrayFilter.Strategy filterStrategy = JigsonConfigHolder.get().filters().arrays().strategy();
         final JsonArrayFilter filter = JsonFilterStrategyFactory.createJsonArrayFilter(filterStrategy);
-        final JsonElement result = filter.filter(jsonArray, criterion);
+        final JsonElement result = filter.filter(jsonArray, this);
         final boolean isArray = result.isJsonArray();
         return isArray && result.getAsJsonArray().size() > 0;
     }
 
-    private List<String> getTokens() {
+    private static List<String> getTokens(final String criterion) {
         final String trimmedCriterion = criterion.trim().replace(SPACE, EMPTY);
         final List<String> tokens =
-                TokenizerFactory
-                        .createCriteriaTokenizer()
+                Lexer.CRITERIA
                         .tokenize(trimmedCriterion)
                         .stream()
                         .map(Token::getToken)
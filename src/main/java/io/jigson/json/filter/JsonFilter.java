@@ -17,8 +17,15 @@
 package io.jigson.json.filter;
 
 import com.google.gson.JsonElement;
+import io.jigson.json.expression.Criterion;
+import io.jigson.json.expression.CriterionCompiler;
 
 @FunctionalInterface
 public interface JsonFilter<T extends JsonElement, R> {
-    R filter(T jsonElement, String criterion);
+
+    R filter(T jsonElement, Criterion criterion);
+
+    default R filter(final T jsonElement, final String criterion) {
+        return filter(jsonElement, CriterionCompiler.compile(criterion));
+    }
 }
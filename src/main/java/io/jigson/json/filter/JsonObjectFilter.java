@@ -19,7 +19,7 @@ package io.jigson.json.filter;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
-import io.jigson.json.expression.JsonExpression;
+import io.jigson.json.expression.Criterion;
 
 public class JsonObjectFilter implements JsonFilter<JsonObject, JsonElement> {
 
@@ -29,8 +29,8 @@ public class JsonObjectFilter implements JsonFilter<JsonObject, JsonElement> {
     }
 
     @Override
-    public JsonElement filter(final JsonObject jsonObject, final String criterion) {
-        final Boolean isAccepted = JsonExpression.from(jsonObject, criterion).interpret();
+    public JsonElement filter(final JsonObject jsonObject, final Criterion criterion) {
+        final boolean isAccepted = criterion.accept(jsonObject);
         return isAccepted ? jsonObject : JsonNull.INSTANCE;
     }
 }
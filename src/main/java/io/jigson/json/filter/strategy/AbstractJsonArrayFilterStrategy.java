@@ -20,9 +20,16 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
+import io.jigson.json.expression.Criterion;
 import io.jigson.json.filter.JsonArrayFilter;
 import io.jigson.json.filter.JsonObjectFilter;
 
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static io.jigson.utils.StreamUtils.not;
+
 abstract class AbstractJsonArrayFilterStrategy implements JsonArrayFilter {
 
     static final int STARTING_INDEX = 0;
@@ -33,7 +40,39 @@ abstract class AbstractJsonArrayFilterStrategy implements JsonArrayFilter {
         this.jsonObjectFilter = JsonObjectFilter.INSTANCE;
     }
 
-    JsonElement filterWithRouting(final JsonElement jsonElement, final String criterion) {
+    /**
+     * @return results of filtering each element, except ones filtered out, in order of elements
+     */
+    JsonArray collect(final JsonArray jsonArray, final Function<JsonElement, JsonElement> elementFilter) {
+
+        final JsonArray filteredArray = new JsonArray();
+        if (ParallelArrayFilter.isApplicable(jsonArray)) {
+            ParallelArrayFilter.map(jsonArray, elementFilter)
+                    .stream()
+                    .filter(not(JsonElement::isJsonNull))
+                    .forEach(filteredArray::add);
+        } else {
+            IntStream
+                    .range(STARTING_INDEX, jsonArray.size())
+                    .mapToObj(jsonArray::get)
+                    .map(elementFilter)
+                    .filter(not(JsonElement::isJsonNull))
+                    .forEach(filteredArray::add);
+        }
+        return filteredArray;
+    }
+
+    boolean anyMatch(final JsonArray jsonArray, final Predicate<JsonElement> predicate) {
+        if (ParallelArrayFilter.isApplicable(jsonArray)) {
+            return ParallelArrayFilter.anyMatch(jsonArray, predicate);
+        }
+        return IntStream
+                .range(STARTING_INDEX, jsonArray.size())
+                .mapToObj(jsonArray::get)
+                .anyMatch(predicate);
+    }
+
+    JsonElement filterWithRouting(final JsonElement jsonElement, final Criterion criterion) {
         if (jsonElement.isJsonPrimitive()) {
             // primitive is just passed through by default (no filtering)
             return jsonElement;
@@ -19,10 +19,7 @@ package io.jigson.json.filter.strategy;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
-
-import java.util.stream.IntStream;
-
-import static io.jigson.utils.StreamUtils.not;
+import io.jigson.json.expression.Criterion;
 
 class AllIfAnyMatchingStrategy extends AbstractJsonArrayFilterStrategy {
 
@@ -32,14 +29,12 @@ class AllIfAnyMatchingStrategy extends AbstractJsonArrayFilterStrategy {
     }
 
     @Override
-    public JsonElement filter(final JsonArray jsonArray, final String criterion) {
+    public JsonElement filter(final JsonArray jsonArray, final Criterion criterion) {
         final boolean anyMatch =
-                IntStream
-                        .range(STARTING_INDEX, jsonArray.size())
-                        .mapToObj(jsonArray::get)
-                        .map(item -> filterWithRouting(item, criterion))
-                        .filter(not(JsonElement::isJsonPrimitive))
-                        .anyMatch(not(JsonElement::isJsonNull));
+                anyMatch(jsonArray, item -> {
+                    final JsonElement filteredItem = filterWithRouting(item, criterion);
+                    return !filteredItem.isJsonPrimitive() && !filteredItem.isJsonNull();
+                });
         return anyMatch ? jsonArray : JsonNull.INSTANCE;
     }
 
@@ -19,10 +19,7 @@ package io.jigson.json.filter.strategy;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
-
-import java.util.stream.IntStream;
-
-import static io.jigson.utils.StreamUtils.not;
+import io.jigson.json.expression.Criterion;
 
 public class OnlyMatchingStrategy extends AbstractJsonArrayFilterStrategy {
 
@@ -32,15 +29,9 @@ public class OnlyMatchingStrategy extends AbstractJsonArrayFilterStrategy {
     }
 
     @Override
-    public JsonElement filter(final JsonArray jsonArray, final String criterion) {
-        final JsonArray filteredArray = new JsonArray();
-        IntStream
-                .range(STARTING_INDEX, jsonArray.size())
-                .mapToObj(jsonArray::get)
-                .filter(not(JsonElement::isJsonPrimitive))
-                .map(item -> filterWithRouting(item, criterion))
-                .filter(not(JsonElement::isJsonNull))
-                .forEach(filteredArray::add);
+    public JsonElement filter(final JsonArray jsonArray, final Criterion criterion) {
+        final JsonArray filteredArray =
+                collect(jsonArray, item -> item.isJsonPrimitive() ? JsonNull.INSTANCE : filterWithRouting(item, criterion));
         return filteredArray.size() > 0 ? filteredArray : JsonNull.INSTANCE;
     }
 }
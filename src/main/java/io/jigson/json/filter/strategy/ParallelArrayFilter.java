@@ -0,0 +1,163 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.json.filter.strategy;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import io.jigson.core.JigsonConfig;
+import io.jigson.core.JigsonConfigHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Splits {@link JsonArray} into contiguous chunks processed concurrently by configured {@link Executor}.
+ * Chunk results are joined in order of chunks, so order of elements is preserved.
+ * Workers run with configuration of the calling thread. Arrays nested in elements
+ * are processed sequentially by the worker, so workers never wait for each other.
+ *
+ * @author Daniel Zarzeczny
+ */
+final class ParallelArrayFilter {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int MIN_CHUNK_SIZE = 256;
+
+    private static final ThreadLocal<Boolean> isWorker = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private ParallelArrayFilter() {
+    }
+
+    static boolean isApplicable(final JsonArray jsonArray) {
+        return !isWorker.get() && JigsonConfigHolder.get().filters().arrays().isParallel(jsonArray.size());
+    }
+
+    /**
+     * @return results of given function applied to each element, in order of elements
+     */
+    static List<JsonElement> map(final JsonArray jsonArray, final Function<JsonElement, JsonElement> function) {
+
+        final List<CompletableFuture<List<JsonElement>>> chunks = submit(jsonArray, (from, to) -> {
+            final List<JsonElement> results = new ArrayList<>(to - from);
+            for (int i = from; i < to; ++i) {
+                results.add(function.apply(jsonArray.get(i)));
+            }
+            return results;
+        });
+
+        final List<JsonElement> results = new ArrayList<>(jsonArray.size());
+        for (final CompletableFuture<List<JsonElement>> chunk : chunks) {
+            results.addAll(join(chunk));
+        }
+        return results;
+    }
+
+    /**
+     * @return true if any element meets given predicate, all workers stop as soon as one of them finds such element
+     */
+    static boolean anyMatch(final JsonArray jsonArray, final Predicate<JsonElement> predicate) {
+
+        final AtomicBoolean isFound = new AtomicBoolean(false);
+        final List<CompletableFuture<Boolean>> chunks = submit(jsonArray, (from, to) -> {
+            for (int i = from; i < to && !isFound.get(); ++i) {
+                if (predicate.test(jsonArray.get(i))) {
+                    isFound.set(true);
+                }
+            }
+            return isFound.get();
+        });
+
+        // a failure is reported only if no match has been found, as sequential filtering would stop at the match
+        RuntimeException failure = null;
+        for (final CompletableFuture<Boolean> chunk : chunks) {
+            try {
+                join(chunk);
+            } catch (final RuntimeException e) {
+                failure = Objects.isNull(failure) ? e : failure;
+            }
+        }
+        if (!isFound.get() && Objects.nonNull(failure)) {
+            throw failure;
+        }
+        return isFound.get();
+    }
+
+    private static <T> List<CompletableFuture<T>> submit(final JsonArray jsonArray, final ChunkTask<T> task) {
+
+        final JigsonConfig config = JigsonConfigHolder.get();
+        final Executor executor = config.filters().arrays().executor();
+
+        final int size = jsonArray.size();
+        final int chunkSize = chunkSize(size, executor);
+        final List<CompletableFuture<T>> chunks = new ArrayList<>((size + chunkSize - 1) / chunkSize);
+
+        for (int from = 0; from < size; from += chunkSize) {
+            final int chunkFrom = from;
+            final int chunkTo = Math.min(from + chunkSize, size);
+            chunks.add(CompletableFuture.supplyAsync(() -> runAsWorker(config, () -> task.run(chunkFrom, chunkTo)), executor));
+        }
+        return chunks;
+    }
+
+    private static <T> T runAsWorker(final JigsonConfig config, final Supplier<T> work) {
+
+        final boolean wasWorker = isWorker.get();
+        isWorker.set(Boolean.TRUE);
+        try {
+            return JigsonConfigHolder.callWith(config, work);
+        } finally {
+            isWorker.set(wasWorker);
+        }
+    }
+
+    private static int chunkSize(final int size, final Executor executor) {
+        final int workers =
+                executor instanceof ForkJoinPool
+                        ? ((ForkJoinPool) executor).getParallelism()
+                        : Runtime.getRuntime().availableProcessors();
+        final int chunks = Math.max(workers, 1) * CHUNKS_PER_WORKER;
+        return Math.max(MIN_CHUNK_SIZE, (size + chunks - 1) / chunks);
+    }
+
+    private static <T> T join(final CompletableFuture<T> chunk) {
+        try {
+            return chunk.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask<T> {
+
+        T run(int from, int to);
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.json.lazy;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Represents JSON document kept as UTF-8 bytes together with its {@link StructuralIndex}, as an alternative
+ * to Gson tree for read-mostly queries. Keys and values are not materialised until they're asked for,
+ * so navigating to a value costs neither {@link com.google.gson.JsonObject}s nor {@link String}s on the way.
+ * <p>
+ * Values are referred to by {@code long} references, valid for the document which gave them.
+ * The document is immutable, so it might be navigated by many threads at once.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class LazyDocument {
+
+    /**
+     * Reference given when there's no attribute of given name.
+     */
+    public static final long MISSING = -1L;
+
+    private static final JsonParser PARSER = new JsonParser();
+    private static final int POSITION_BITS = 32;
+    private static final long POSITION_MASK = 0xFFFFFFFFL;
+    private static final byte[] NULL_TEXT = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] bytes;
+    private final StructuralIndex index;
+
+    private LazyDocument(final byte[] bytes, final StructuralIndex index) {
+        this.bytes = bytes;
+        this.index = index;
+    }
+
+    /**
+     * @param bytes UTF-8 encoded JSON, which mustn't be modified afterwards
+     */
+    public static LazyDocument parse(final byte[] bytes) {
+        return new LazyDocument(bytes, StructuralIndex.build(bytes));
+    }
+
+    public static LazyDocument parse(final String json) {
+        return parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return size of the document in bytes
+     */
+    public int length() {
+        return bytes.length;
+    }
+
+    public long root() {
+        return reference(0, skipWhitespaces(0));
+    }
+
+    public boolean isObject(final long reference) {
+        return byteAt(start(reference)) == '{';
+    }
+
+    public boolean isArray(final long reference) {
+        return byteAt(start(reference)) == '[';
+    }
+
+    /**
+     * @return true for {@code null} literal and for an empty document
+     */
+    public boolean isNull(final long reference) {
+        final int start = start(reference);
+        return start >= bytes.length || bytes[start] == 'n';
+    }
+
+    /**
+     * @return reference to value of the last attribute of given name (as in {@link com.google.gson.JsonObject})
+     * or {@link #MISSING}
+     */
+    public long field(final long objectReference, final String name) {
+        return field(objectReference, name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param name UTF-8 encoded name of the attribute
+     * @see #field(long, String)
+     */
+    public long field(final long objectReference, final byte[] name) {
+
+        long found = MISSING;
+        int separator = entry(objectReference);
+        if (isEmptyContainer(separator)) {
+            return found;
+        }
+        do {
+            final int keyStart = skipWhitespaces(index.position(separator) + 1);
+            final int colon = separator + 1;
+            final int valueStart = skipWhitespaces(index.position(colon) + 1);
+            if (isKeyEqual(keyStart, name)) {
+                found = reference(colon + 1, valueStart);
+            }
+            separator = next(colon + 1, valueStart);
+        } while (bytes[index.position(separator)] == ',');
+        return found;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException when there's no element of given index
+     */
+    public long element(final long arrayReference, final int position) {
+
+        int separator = entry(arrayReference);
+        int size = 0;
+        if (!isEmptyContainer(separator)) {
+            do {
+                final int valueStart = skipWhitespaces(index.position(separator) + 1);
+                if (size++ == position) {
+                    return reference(separator + 1, valueStart);
+                }
+                separator = next(separator + 1, valueStart);
+            } while (bytes[index.position(separator)] == ',');
+        }
+        throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size);
+    }
+
+    /**
+     * Passes reference of each element of given array to the consumer, in order.
+     */
+    public void forEachElement(final long arrayReference, final LongConsumer consumer) {
+
+        int separator = entry(arrayReference);
+        if (isEmptyContainer(separator)) {
+            return;
+        }
+        do {
+            final int valueStart = skipWhitespaces(index.position(separator) + 1);
+            consumer.accept(reference(separator + 1, valueStart));
+            separator = next(separator + 1, valueStart);
+        } while (bytes[index.position(separator)] == ',');
+    }
+
+    public JsonElement materialize() {
+        return materialize(root());
+    }
+
+    /**
+     * @return Gson representation of referred value, created anew on each call
+     */
+    public JsonElement materialize(final long reference) {
+        final int start = start(reference);
+        if (start >= bytes.length) {
+            return JsonNull.INSTANCE;
+        }
+        final int end = end(reference);
+        switch (bytes[start]) {
+            case '"':
+                return materializeString(start, end);
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                return new JsonPrimitive(new LazilyParsedNumber(new String(bytes, start, trimEnd(start, end) - start, StandardCharsets.US_ASCII)));
+            default:
+                return PARSER.parse(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * @return UTF-8 encoded JSON text of referred value, copied from the document as it is (without decoding)
+     */
+    public byte[] raw(final long reference) {
+        final int start = start(reference);
+        if (start >= bytes.length) {
+            return NULL_TEXT.clone();
+        }
+        return Arrays.copyOfRange(bytes, start, trimEnd(start, end(reference)));
+    }
+
+    /**
+     * Strings without escapes are decoded directly, the others are left to Gson.
+     */
+    private JsonElement materializeString(final int start, final int end) {
+        final int valueEnd = trimEnd(start, end) - 1;
+        for (int i = start + 1; i < valueEnd; ++i) {
+            if (bytes[i] == '\\') {
+                return PARSER.parse(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+            }
+        }
+        return new JsonPrimitive(new String(bytes, start + 1, valueEnd - start - 1, StandardCharsets.UTF_8));
+    }
+
+    private int trimEnd(final int start, final int end) {
+        int current = end;
+        while (current > start && bytes[current - 1] <= ' ') {
+            --current;
+        }
+        return current;
+    }
+
+    private int end(final long reference) {
+        final int entry = entry(reference);
+        if (isContainer(start(reference))) {
+            return index.position(index.closing(entry)) + 1;
+        }
+        return entry < index.size() ? index.position(entry) : bytes.length;
+    }
+
+    /**
+     * @return index of the separator following value, which starts at given position and is referred by given entry
+     */
+    private int next(final int entry, final int valueStart) {
+        return isContainer(valueStart) ? index.closing(entry) + 1 : entry;
+    }
+
+    private boolean isEmptyContainer(final int entry) {
+        final int closing = index.closing(entry);
+        return closing == entry + 1 && skipWhitespaces(index.position(entry) + 1) == index.position(closing);
+    }
+
+    private boolean isContainer(final int position) {
+        final byte value = byteAt(position);
+        return value == '{' || value == '[';
+    }
+
+    private boolean isKeyEqual(final int keyStart, final byte[] name) {
+        final int nameStart = keyStart + 1;
+        for (int i = 0; i < name.length; ++i) {
+            final byte current = bytes[nameStart + i];
+            if (current != name[i]) {
+                return current == '\\' && isEscapedKeyEqual(keyStart, name);
+            }
+        }
+        final byte last = bytes[nameStart + name.length];
+        return last == '"' || (last == '\\' && isEscapedKeyEqual(keyStart, name));
+    }
+
+    private boolean isEscapedKeyEqual(final int keyStart, final byte[] name) {
+        int keyEnd = keyStart + 1;
+        while (bytes[keyEnd] != '"') {
+            keyEnd += bytes[keyEnd] == '\\' ? 2 : 1;
+        }
+        final String key = PARSER.parse(new String(bytes, keyStart, keyEnd + 1 - keyStart, StandardCharsets.UTF_8)).getAsString();
+        return key.equals(new String(name, StandardCharsets.UTF_8));
+    }
+
+    private int skipWhitespaces(final int position) {
+        int current = position;
+        while (current < bytes.length && bytes[current] <= ' ') {
+            ++current;
+        }
+        return current;
+    }
+
+    private byte byteAt(final int position) {
+        return position < bytes.length ? bytes[position] : 0;
+    }
+
+    private static long reference(final int entry, final int start) {
+        return ((long) entry << POSITION_BITS) | (start & POSITION_MASK);
+    }
+
+    private static int entry(final long reference) {
+        return (int) (reference >>> POSITION_BITS);
+    }
+
+    private static int start(final long reference) {
+        return (int) (reference & POSITION_MASK);
+    }
+}
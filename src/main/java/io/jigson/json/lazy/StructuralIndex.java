@@ -0,0 +1,168 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.json.lazy;
+
+import com.google.gson.JsonSyntaxException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Represents positions of structural characters, ie. braces, brackets, colons and commas (except ones inside strings),
+ * of JSON document held as UTF-8 bytes. For each opening brace or bracket it also keeps the index of the matching
+ * closing one, so a nested value might be skipped in constant time.
+ * <p>
+ * Building the index is the only pass over the whole document; apart from balancing of braces and brackets,
+ * it doesn't validate the document. Strings, which usually make up most of the document, are skipped
+ * a word (8 bytes) at a time, finding quotes and backslashes in the whole word with bitwise arithmetic
+ * (Vector API would do it for wider words, but it's not available on Java 8).
+ *
+ * @author Daniel Zarzeczny
+ */
+final class StructuralIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private int[] positions;
+    private int[] closings;
+    private int size;
+
+    private StructuralIndex(final int capacity) {
+        this.positions = new int[capacity];
+        this.closings = new int[capacity];
+    }
+
+    static StructuralIndex build(final byte[] bytes) {
+
+        final StructuralIndex index = new StructuralIndex(Math.max(INITIAL_CAPACITY, bytes.length / 8));
+        final ByteBuffer words = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int[] openings = new int[INITIAL_CAPACITY];
+        int depth = 0;
+
+        for (int i = 0; i < bytes.length; ++i) {
+            final byte current = bytes[i];
+            switch (current) {
+                case '"':
+                    i = skipString(bytes, words, i + 1);
+                    break;
+                case '{':
+                case '[':
+                    if (depth == openings.length) {
+                        openings = Arrays.copyOf(openings, depth * 2);
+                    }
+                    openings[depth++] = index.size;
+                    index.add(i);
+                    break;
+                case '}':
+                case ']':
+                    if (depth == 0 || !isMatching(bytes[index.positions[openings[depth - 1]]], current)) {
+                        throw new JsonSyntaxException("Unbalanced '" + (char) current + "' at " + i + "!");
+                    }
+                    index.closings[openings[--depth]] = index.size;
+                    index.add(i);
+                    break;
+                case ':':
+                case ',':
+                    index.add(i);
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (depth != 0) {
+            throw new JsonSyntaxException("Unexpected end of document!");
+        }
+        return index;
+    }
+
+    /**
+     * @return position of the quote closing string, which content starts at given position
+     */
+    private static int skipString(final byte[] bytes, final ByteBuffer words, final int start) {
+        int position = start;
+        while (position < bytes.length) {
+            if (position + Long.BYTES <= bytes.length) {
+                final long found = findQuotesAndBackslashes(words.getLong(position));
+                if (found == 0) {
+                    position += Long.BYTES;
+                    continue;
+                }
+                position += Long.numberOfTrailingZeros(found) >>> 3;
+            } else if (bytes[position] != '"' && bytes[position] != '\\') {
+                ++position;
+                continue;
+            }
+            if (bytes[position] == '"') {
+                return position;
+            }
+            position += 2;
+        }
+        throw new JsonSyntaxException("Unexpected end of document!");
+    }
+
+    /**
+     * @return given word (read in little endian order) with the highest bit set in each quote or backslash byte
+     */
+    static long findQuotesAndBackslashes(final long word) {
+        return findBytes(word, '"') | findBytes(word, '\\');
+    }
+
+    /**
+     * @return given word with the highest bit set in each byte equal to given value (and only there)
+     */
+    private static long findBytes(final long word, final char value) {
+        final long difference = word ^ (ONES * value);
+        final long carried = (difference & LOW_BITS) + LOW_BITS;
+        return ~(carried | difference | LOW_BITS);
+    }
+
+    private static boolean isMatching(final byte opening, final byte closing) {
+        return (opening == '{' && closing == '}') || (opening == '[' && closing == ']');
+    }
+
+    private void add(final int position) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            closings = Arrays.copyOf(closings, size * 2);
+        }
+        positions[size++] = position;
+    }
+
+    /**
+     * @return number of structural characters
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return position in the document of the structural character of given index
+     */
+    int position(final int entry) {
+        return positions[entry];
+    }
+
+    /**
+     * @return index of the closing brace or bracket matching the opening one of given index
+     */
+    int closing(final int entry) {
+        return closings[entry];
+    }
+}
@@ -20,6 +20,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import io.jigson.core.flow.FilterFlow;
 import io.jigson.expression.predicate.Predicate;
+import io.jigson.json.expression.Criterion;
 import io.jigson.json.expression.JsonPredicate;
 import io.jigson.pipe.*;
 
@@ -70,6 +71,11 @@ public class JsonPipe {
         return map(filterFlow);
     }
 
+    public JsonPipe filter(final Criterion criterion) {
+        final FilterFlow filterFlow = new FilterFlow(criterion);
+        return map(filterFlow);
+    }
+
     public boolean match(final Predicate<JsonElement> predicate) {
         return JoinPipe.from(source).match(predicate);
     }
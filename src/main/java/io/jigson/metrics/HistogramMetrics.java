@@ -0,0 +1,125 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents in-memory {@link JigsonMetrics}, keeping a {@link LatencyHistogram} per query (and per plugin)
+ * along with counters of failures, filtered elements and cache hits and misses.
+ * It's meant for local testing and diagnostics, when there's no external metrics stack at hand.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class HistogramMetrics implements JigsonMetrics {
+
+    private final ConcurrentMap<String, LatencyHistogram> queries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> plugins = new ConcurrentHashMap<>();
+    private final LatencyHistogram compilations = new LatencyHistogram();
+    private final LatencyHistogram filters = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder filteredElements = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    private HistogramMetrics() {
+    }
+
+    public static HistogramMetrics newInstance() {
+        return new HistogramMetrics();
+    }
+
+    @Override
+    public void onQueryEnd(final String query, final long nanos, final boolean failed) {
+        queries.computeIfAbsent(query, key -> new LatencyHistogram()).record(nanos);
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    @Override
+    public void onCompile(final String query, final long nanos) {
+        compilations.record(nanos);
+    }
+
+    @Override
+    public void onFilter(final int elements, final long nanos) {
+        filters.record(nanos);
+        filteredElements.add(elements);
+    }
+
+    @Override
+    public void onPluginDispatch(final String pluginKey, final long nanos) {
+        plugins.computeIfAbsent(pluginKey, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    @Override
+    public void onCacheHit(final String query) {
+        cacheHits.increment();
+    }
+
+    @Override
+    public void onCacheMiss(final String query) {
+        cacheMisses.increment();
+    }
+
+    /**
+     * @return latencies of given query (successful or not), empty if it hasn't been executed yet
+     */
+    public LatencyHistogram query(final String query) {
+        return queries.getOrDefault(query, new LatencyHistogram());
+    }
+
+    /**
+     * @return latencies of queries by their text
+     */
+    public Map<String, LatencyHistogram> queries() {
+        return Collections.unmodifiableMap(queries);
+    }
+
+    public LatencyHistogram plugin(final String pluginKey) {
+        return plugins.getOrDefault(pluginKey, new LatencyHistogram());
+    }
+
+    public LatencyHistogram compilations() {
+        return compilations;
+    }
+
+    public LatencyHistogram filters() {
+        return filters;
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    public long filteredElements() {
+        return filteredElements.sum();
+    }
+
+    public long cacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long cacheMisses() {
+        return cacheMisses.sum();
+    }
+}
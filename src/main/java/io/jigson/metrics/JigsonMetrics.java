@@ -0,0 +1,78 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.metrics;
+
+/**
+ * Represents receiver of measurements taken while queries are compiled and executed, eg. to export them
+ * to a metrics stack. It's configured with {@link io.jigson.core.JigsonConfig.MetricsConfig#recordTo(JigsonMetrics)}.
+ * <p>
+ * Implementations are called from any thread executing queries, so they must be thread-safe. Measurements are
+ * taken only when {@link #isEnabled()} gives true, thus {@link #NOOP} (the default) costs nothing but a check.
+ *
+ * @author Daniel Zarzeczny
+ */
+public interface JigsonMetrics {
+
+    /**
+     * Ignores all the measurements, none of them is even taken.
+     */
+    JigsonMetrics NOOP = new JigsonMetrics() {
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * @return false if measurements should not be taken at all
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    default void onQueryStart(final String query) {
+    }
+
+    /**
+     * @param nanos   wall time of the query
+     * @param failed  true if the query has thrown an exception
+     */
+    default void onQueryEnd(final String query, final long nanos, final boolean failed) {
+    }
+
+    /**
+     * @param nanos time of tokenizing the query and compiling it into an executable plan
+     */
+    default void onCompile(final String query, final long nanos) {
+    }
+
+    /**
+     * @param elements number of elements filtered by criterion, ie. size of filtered array or 1 for other elements
+     */
+    default void onFilter(final int elements, final long nanos) {
+    }
+
+    default void onPluginDispatch(final String pluginKey, final long nanos) {
+    }
+
+    default void onCacheHit(final String query) {
+    }
+
+    default void onCacheMiss(final String query) {
+    }
+}
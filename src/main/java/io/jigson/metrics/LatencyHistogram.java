@@ -0,0 +1,101 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a histogram of latencies with buckets of bounded relative error, as HdrHistogram does.
+ * Values below {@link #SUB_BUCKETS} nanoseconds are recorded exactly, each next power of two is split into
+ * {@link #SUB_BUCKETS} / 2 equal buckets, so a value is reported with relative error below 2 / {@link #SUB_BUCKETS}.
+ * <p>
+ * Recording is lock-free and allocation-free, so the histogram might be updated by many threads at once.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKETS = 128;
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        totalNanos.add(value);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double mean(final TimeUnit unit) {
+        final long currentCount = count();
+        return currentCount == 0 ? 0.0 : (double) totalNanos.sum() / currentCount / unit.toNanos(1);
+    }
+
+    /**
+     * @param percentile eg. 99.9
+     * @return the highest value of the bucket containing given percentile of recorded values, 0 if there are none
+     */
+    public long percentile(final double percentile, final TimeUnit unit) {
+        final long currentCount = count();
+        if (currentCount == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * currentCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return unit.convert(highestValueOf(i), TimeUnit.NANOSECONDS);
+            }
+        }
+        return unit.convert(highestValueOf(BUCKETS - 1), TimeUnit.NANOSECONDS);
+    }
+
+    public long max(final TimeUnit unit) {
+        return percentile(100.0, unit);
+    }
+
+    static int indexOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        // value has the highest bit at position >= SUB_BUCKET_BITS, its next bits select the sub-bucket
+        final int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) - HALF_SUB_BUCKETS;
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueOf(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        final long subBucket = (index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -1,11 +1,18 @@
 package io.jigson.pipe;
 
+import io.jigson.core.JigsonConfig;
+import io.jigson.core.JigsonConfigHolder;
+import io.jigson.plugin.PluginRegistry;
+
 import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.Objects;
 import java.util.Optional;
 
 public class JigsonContext extends HashMap<String, Object> {
 
+    private PluginRegistry pluginRegistry = PluginRegistry.INSTANCE;
+    private JigsonConfig config;
 
     private JigsonContext() {
     }
@@ -14,6 +21,44 @@ public class JigsonContext extends HashMap<String, Object> {
         return new JigsonContext();
     }
 
+    /**
+     * @param pluginRegistry registry plugins called by queries run with this context are looked up in
+     */
+    public JigsonContext withPluginRegistry(final PluginRegistry pluginRegistry) {
+        this.pluginRegistry = Objects.requireNonNull(pluginRegistry);
+        return this;
+    }
+
+    public PluginRegistry pluginRegistry() {
+        return pluginRegistry;
+    }
+
+    /**
+     * @param config config queries run with this context are evaluated with
+     */
+    public JigsonContext withConfig(final JigsonConfig config) {
+        this.config = Objects.requireNonNull(config);
+        return this;
+    }
+
+    /**
+     * @return new context with the same entries and plugins, bound to config resolved on the calling thread
+     */
+    public JigsonContext copy() {
+        final JigsonContext copy = new JigsonContext();
+        copy.putAll(this);
+        copy.pluginRegistry = pluginRegistry;
+        copy.config = config();
+        return copy;
+    }
+
+    /**
+     * @return config given explicitly, otherwise one bound to the current thread by {@link JigsonConfigHolder}
+     */
+    public JigsonConfig config() {
+        return Objects.nonNull(config) ? config : JigsonConfigHolder.get();
+    }
+
     public Optional<Integer> getInt(final String key) {
         return get(key, Integer.class);
     }
@@ -0,0 +1,217 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.pipe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents UTF-8 encoded JSON file mapped into memory with {@link FileChannel#map}, so it's read
+ * without copying it into a {@link String} or a {@code char[]} first. Files larger than 2GB are mapped
+ * as many regions, each of them ending on a character boundary.
+ * <p>
+ * Pages of the file are loaded by the operating system only when {@link #reader()} gets to them,
+ * thus a streamed query which is done early (eg. it failed on a missing attribute) doesn't touch the rest of the file.
+ * <pre>{@code
+ * try (MappedSource source = MappedSource.map(path)) {
+ *     final JsonElement names = Jigson.compile("@people.name").run(source.reader());
+ * }
+ * }</pre>
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class MappedSource implements Closeable {
+
+    static final int MAX_REGION_SIZE = 1 << 30;
+
+    private static final int CONTINUATION_MASK = 0xC0;
+    private static final int CONTINUATION_BYTE = 0x80;
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> regions;
+    private final long size;
+
+    private MappedSource(final FileChannel channel, final List<MappedByteBuffer> regions, final long size) {
+        this.channel = channel;
+        this.regions = regions;
+        this.size = size;
+    }
+
+    public static MappedSource map(final Path path) {
+        return map(path, MAX_REGION_SIZE);
+    }
+
+    static MappedSource map(final Path path, final int maxRegionSize) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            final long size = channel.size();
+            final List<MappedByteBuffer> regions = new ArrayList<>();
+            long start = 0;
+            while (start < size) {
+                final long end = regionEnd(channel, start, Math.min(start + maxRegionSize, size), size);
+                regions.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+                start = end;
+            }
+            return new MappedSource(channel, regions, size);
+        } catch (final IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Moves the end of a region back, so it doesn't split a multi-byte character.
+     */
+    private static long regionEnd(final FileChannel channel, final long start, final long end, final long size) throws IOException {
+        final ByteBuffer singleByte = ByteBuffer.allocate(1);
+        long current = end;
+        while (current < size && current > start + 1) {
+            singleByte.clear();
+            channel.read(singleByte, current);
+            if ((singleByte.get(0) & CONTINUATION_MASK) != CONTINUATION_BYTE) {
+                break;
+            }
+            current--;
+        }
+        return current;
+    }
+
+    /**
+     * @return file size in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return new reader decoding the file from its beginning; it's not thread-safe, but many of them might be used at once
+     */
+    public Reader reader() {
+        return new MappedReader();
+    }
+
+    public Source<Reader> source() {
+        return Source.of(reader());
+    }
+
+    /**
+     * Closes the file, mapped regions are released once they're garbage collected.
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void closeQuietly(final FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (final IOException ignored) {
+                // the original exception is more relevant
+            }
+        }
+    }
+
+    private final class MappedReader extends Reader {
+
+        private final CharsetDecoder decoder =
+                StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private int regionIndex = -1;
+        private ByteBuffer region = ByteBuffer.allocate(0);
+        private boolean isFlushed;
+        // low surrogate of a supplementary character decoded into a single-char buffer
+        private final CharBuffer surrogatePair = CharBuffer.allocate(2);
+        private boolean hasPendingSurrogate;
+
+        @Override
+        public int read(final char[] buffer, final int offset, final int length) {
+            if (length == 0) {
+                return 0;
+            }
+            final CharBuffer output = CharBuffer.wrap(buffer, offset, length);
+            if (hasPendingSurrogate) {
+                output.put(surrogatePair.get());
+                hasPendingSurrogate = false;
+            }
+            while (output.position() == offset) {
+                if (region.hasRemaining()) {
+                    final int position = region.position();
+                    final CoderResult result = decoder.decode(region, output, isLastRegion());
+                    if (result.isOverflow() && output.position() == offset) {
+                        // supplementary character doesn't fit into the output, so it's given char by char
+                        readSurrogatePair(output);
+                    } else if (region.position() == position && output.position() == offset) {
+                        // malformed character split by the end of a region
+                        region.position(region.limit());
+                        output.put(REPLACEMENT);
+                    }
+                } else if (!isLastRegion()) {
+                    region = regions.get(++regionIndex).duplicate();
+                } else if (!isFlushed) {
+                    decoder.decode(region, output, true);
+                    decoder.flush(output);
+                    isFlushed = true;
+                } else {
+                    return -1;
+                }
+            }
+            return output.position() - offset;
+        }
+
+        private void readSurrogatePair(final CharBuffer output) {
+            surrogatePair.clear();
+            decoder.decode(region, surrogatePair, isLastRegion());
+            surrogatePair.flip();
+            output.put(surrogatePair.get());
+            hasPendingSurrogate = surrogatePair.hasRemaining();
+        }
+
+        private boolean isLastRegion() {
+            return regionIndex + 1 >= regions.size();
+        }
+
+        @Override
+        public void close() {
+            region = ByteBuffer.allocate(0);
+            regionIndex = regions.size();
+            isFlushed = true;
+            hasPendingSurrogate = false;
+        }
+    }
+}
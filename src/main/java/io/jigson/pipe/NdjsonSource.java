@@ -0,0 +1,426 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.pipe;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import io.jigson.core.CompiledQuery;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Represents newline-delimited JSON (NDJSON) file, read through {@link FileChannel} in chunks of whole lines.
+ * <pre>{@code
+ * try (Stream<JsonElement> totals = NdjsonSource.from(path).parallel(8).query(Jigson.compile("@order.total"))) {
+ *     totals.forEach(...);
+ * }
+ * }</pre>
+ * By default chunks are parsed and evaluated on the thread consuming results. Once {@link #parallel(int)} is set,
+ * they're parsed and evaluated on worker threads, at most given number of chunks ahead of the consumer,
+ * and results are given in order of lines unless {@link #unordered()} is set. Blank lines are skipped.
+ * <p>
+ * Source is immutable, each stream it gives reads the file on its own and closes it once it's closed itself
+ * or fully consumed.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class NdjsonSource {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private static final JsonParser PARSER = new JsonParser();
+    private static final byte NEW_LINE = '\n';
+    private static final int SEQUENTIAL = 0;
+
+    private final Path path;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final Executor executor;
+    private final boolean isOrdered;
+
+    private NdjsonSource(final Path path,
+                         final int chunkSize,
+                         final int maxChunksInFlight,
+                         final Executor executor,
+                         final boolean isOrdered) {
+        this.path = path;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.executor = executor;
+        this.isOrdered = isOrdered;
+    }
+
+    public static NdjsonSource from(final Path path) {
+        return new NdjsonSource(Objects.requireNonNull(path), DEFAULT_CHUNK_SIZE, SEQUENTIAL, null, true);
+    }
+
+    /**
+     * @param chunkSize number of bytes read at once; lines longer than that make a chunk on their own
+     */
+    public NdjsonSource withChunkSize(final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive!");
+        }
+        return new NdjsonSource(path, chunkSize, maxChunksInFlight, executor, isOrdered);
+    }
+
+    /**
+     * Makes chunks parsed and evaluated concurrently in {@link ForkJoinPool#commonPool()}.
+     */
+    public NdjsonSource parallel(final int maxChunksInFlight) {
+        return parallel(maxChunksInFlight, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Makes chunks parsed and evaluated concurrently by given executor.
+     *
+     * @param maxChunksInFlight maximum number of chunks read ahead of the consumer
+     */
+    public NdjsonSource parallel(final int maxChunksInFlight, final Executor executor) {
+        if (maxChunksInFlight < 1) {
+            throw new IllegalArgumentException("Number of chunks in flight must be positive!");
+        }
+        return new NdjsonSource(path, chunkSize, maxChunksInFlight, Objects.requireNonNull(executor), isOrdered);
+    }
+
+    /**
+     * Makes results of parallel evaluation given as soon as their chunk is evaluated, regardless order of lines.
+     */
+    public NdjsonSource unordered() {
+        return new NdjsonSource(path, chunkSize, maxChunksInFlight, executor, false);
+    }
+
+    public boolean isParallel() {
+        return maxChunksInFlight != SEQUENTIAL;
+    }
+
+    /**
+     * @return lazy stream of parsed lines
+     */
+    public Stream<JsonElement> documents() {
+        return stream(Function::identity);
+    }
+
+    public Stream<JsonElement> query(final CompiledQuery query) {
+        return query(query, JigsonContext.newContext());
+    }
+
+    /**
+     * Given context is copied on the calling thread, capturing its config and plugins,
+     * and each chunk is evaluated with its own copy, so given context is never shared between threads.
+     *
+     * @return lazy stream of results of given query, one per line
+     */
+    public Stream<JsonElement> query(final CompiledQuery query, final JigsonContext context) {
+        final JigsonContext capturedContext = context.copy();
+        return stream(() -> {
+            final JigsonContext chunkContext = capturedContext.copy();
+            return document -> query.run(document, chunkContext);
+        });
+    }
+
+    public Stream<JsonElement> filter(final CompiledQuery expression) {
+        return filter(expression, JigsonContext.newContext());
+    }
+
+    /**
+     * Given context is copied as {@link #query(CompiledQuery, JigsonContext)} does.
+     *
+     * @param expression Expression Mode query, eg. {@code $order.total > 100}
+     * @return lazy stream of parsed lines matching given expression
+     */
+    public Stream<JsonElement> filter(final CompiledQuery expression, final JigsonContext context) {
+        final JigsonContext capturedContext = context.copy();
+        return stream(() -> {
+            final JigsonContext chunkContext = capturedContext.copy();
+            return document -> expression.run(document, chunkContext).getAsBoolean() ? document : null;
+        });
+    }
+
+    /**
+     * @param mappers supplier of mapper of a single chunk, called once per chunk
+     */
+    private Stream<JsonElement> stream(final Supplier<Function<JsonElement, JsonElement>> mappers) {
+        final ChunkReader reader = new ChunkReader(open(), chunkSize);
+        final Iterator<JsonElement> results = isParallel()
+                ? new ParallelIterator(reader, mappers)
+                : new ChunkIterator(reader, chunk -> evaluate(chunk, mappers.get()));
+        final Spliterator<JsonElement> spliterator =
+                Spliterators.spliteratorUnknownSize(results, isOrdered ? Spliterator.ORDERED : 0);
+        return StreamSupport.stream(spliterator, false).onClose(reader::close);
+    }
+
+    private FileChannel open() {
+        try {
+            return FileChannel.open(path, StandardOpenOption.READ);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses each non-blank line of given chunk and maps it, skipping null results.
+     */
+    private static List<JsonElement> evaluate(final byte[] chunk, final Function<JsonElement, JsonElement> mapper) {
+
+        final String lines = new String(chunk, StandardCharsets.UTF_8);
+        final List<JsonElement> results = new ArrayList<>();
+        int start = 0;
+        while (start < lines.length()) {
+            int end = lines.indexOf(NEW_LINE, start);
+            if (end < 0) {
+                end = lines.length();
+            }
+            final String line = lines.substring(start, end).trim();
+            if (!line.isEmpty()) {
+                final JsonElement result = mapper.apply(PARSER.parse(line));
+                if (Objects.nonNull(result)) {
+                    results.add(result);
+                }
+            }
+            start = end + 1;
+        }
+        return results;
+    }
+
+    /**
+     * Reads chunks of whole lines; the last line of a file doesn't have to end with a new line.
+     */
+    private static final class ChunkReader {
+
+        private final FileChannel channel;
+        private ByteBuffer buffer;
+        private boolean isEndOfFile;
+
+        private ChunkReader(final FileChannel channel, final int chunkSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(chunkSize);
+        }
+
+        /**
+         * @return next chunk or null when the whole file has been read
+         */
+        private byte[] next() {
+            try {
+                while (!isEndOfFile) {
+                    if (!buffer.hasRemaining()) {
+                        final int lastNewLine = lastNewLine();
+                        if (lastNewLine >= 0) {
+                            return take(lastNewLine + 1);
+                        }
+                        buffer = grow(buffer);
+                    }
+                    isEndOfFile = channel.read(buffer) < 0;
+                }
+                if (buffer.position() > 0) {
+                    return take(buffer.position());
+                }
+                close();
+                return null;
+            } catch (final IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private int lastNewLine() {
+            for (int i = buffer.position() - 1; i >= 0; --i) {
+                if (buffer.get(i) == NEW_LINE) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private byte[] take(final int length) {
+            final byte[] chunk = new byte[length];
+            buffer.flip();
+            buffer.get(chunk);
+            buffer.compact();
+            return chunk;
+        }
+
+        private static ByteBuffer grow(final ByteBuffer buffer) {
+            final ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            grown.put(buffer);
+            return grown;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Gives results of chunks one by one, evaluating each of them on the consuming thread.
+     */
+    private static final class ChunkIterator implements Iterator<JsonElement> {
+
+        private final ChunkReader reader;
+        private final Function<byte[], List<JsonElement>> evaluation;
+        private Iterator<JsonElement> currentChunk = Collections.emptyIterator();
+
+        private ChunkIterator(final ChunkReader reader, final Function<byte[], List<JsonElement>> evaluation) {
+            this.reader = reader;
+            this.evaluation = evaluation;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!currentChunk.hasNext()) {
+                final byte[] chunk = reader.next();
+                if (Objects.isNull(chunk)) {
+                    return false;
+                }
+                currentChunk = evaluation.apply(chunk).iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public JsonElement next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentChunk.next();
+        }
+    }
+
+    /**
+     * Evaluates chunks in the executor, keeping at most {@link #maxChunksInFlight} of them
+     * submitted ahead of the one being consumed.
+     */
+    private final class ParallelIterator implements Iterator<JsonElement> {
+
+        private final ChunkReader reader;
+        private final Supplier<Function<JsonElement, JsonElement>> mappers;
+        private final CompletionService<List<JsonElement>> completionService;
+        private final Queue<Future<List<JsonElement>>> chunks = new ArrayDeque<>();
+        private Iterator<JsonElement> currentChunk = Collections.emptyIterator();
+        private boolean isRead;
+
+        private ParallelIterator(final ChunkReader reader, final Supplier<Function<JsonElement, JsonElement>> mappers) {
+            this.reader = reader;
+            this.mappers = mappers;
+            this.completionService = new ExecutorCompletionService<>(executor);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!currentChunk.hasNext()) {
+                fill();
+                if (chunks.isEmpty()) {
+                    return false;
+                }
+                currentChunk = get(isOrdered ? chunks.poll() : takeCompleted()).iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public JsonElement next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentChunk.next();
+        }
+
+        private void fill() {
+            while (!isRead && chunks.size() < maxChunksInFlight) {
+                final byte[] chunk = reader.next();
+                if (Objects.isNull(chunk)) {
+                    isRead = true;
+                } else {
+                    final Function<JsonElement, JsonElement> mapper = mappers.get();
+                    chunks.add(submit(() -> evaluate(chunk, mapper)));
+                }
+            }
+        }
+
+        /**
+         * Only unordered results go through {@link CompletionService}, as it keeps each completed chunk until it's taken.
+         */
+        private Future<List<JsonElement>> submit(final Callable<List<JsonElement>> evaluation) {
+            if (isOrdered) {
+                final FutureTask<List<JsonElement>> task = new FutureTask<>(evaluation);
+                executor.execute(task);
+                return task;
+            }
+            return completionService.submit(evaluation);
+        }
+
+        private Future<List<JsonElement>> takeCompleted() {
+            try {
+                final Future<List<JsonElement>> completed = completionService.take();
+                chunks.remove(completed);
+                return completed;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private List<JsonElement> get(final Future<List<JsonElement>> chunk) {
+            try {
+                return chunk.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.pipe;
+
+import com.google.gson.JsonElement;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Represents newline-delimited JSON (NDJSON) output, each written {@link JsonElement} takes exactly one line.
+ * <pre>{@code
+ * try (NdjsonWriter writer = NdjsonWriter.to(output)) {
+ *     writer.writeMatched(NdjsonSource.from(input).parallel(8).query(query));
+ * }
+ * }</pre>
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class NdjsonWriter implements Closeable, Flushable {
+
+    private static final char NEW_LINE = '\n';
+
+    private final Writer writer;
+
+    private NdjsonWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Creates (or truncates) given file and writes it as UTF-8.
+     */
+    public static NdjsonWriter to(final Path path) {
+        try {
+            return new NdjsonWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static NdjsonWriter to(final Writer writer) {
+        return new NdjsonWriter(Objects.requireNonNull(writer));
+    }
+
+    public NdjsonWriter write(final JsonElement jsonElement) {
+        try {
+            writer.write(jsonElement.toString());
+            writer.write(NEW_LINE);
+            return this;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes each of given elements which is neither null nor {@link com.google.gson.JsonNull}.
+     *
+     * @return number of written lines
+     */
+    public long writeMatched(final Stream<? extends JsonElement> jsonElements) {
+        long count = 0;
+        final Iterator<? extends JsonElement> iterator = jsonElements.iterator();
+        while (iterator.hasNext()) {
+            final JsonElement jsonElement = iterator.next();
+            if (Objects.nonNull(jsonElement) && !jsonElement.isJsonNull()) {
+                write(jsonElement);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,27 +1,161 @@
 package io.jigson.plugin;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
-import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
-public class PluginRegistry extends HashMap<String, JsonPlugin> {
+/**
+ * Represents plugins available to queries, keyed by {@link JsonPlugin#getKey()}.
+ * Plugins are kept in an immutable snapshot, which is atomically swapped whenever a plugin
+ * is registered or deregistered. Thus lookups take no locks and always see a consistent set of plugins.
+ * <p>
+ * A registry might be layered over another one (see {@link #layeredOver(PluginRegistry)}).
+ * Plugins registered in such registry are visible only through it and take precedence
+ * over plugins of the parent registry, which remain available as well, unless deregistered in the layered one.
+ *
+ * @author Daniel Zarzeczny
+ */
+public final class PluginRegistry {
 
-    public static final PluginRegistry INSTANCE = new PluginRegistry();
+    public static final PluginRegistry INSTANCE = new PluginRegistry(null);
 
-    private PluginRegistry() {
+    private final PluginRegistry parent;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    // own plugins merged with plugins of the parent, valid as long as version doesn't change
+    private volatile Snapshot layeredSnapshot = Snapshot.EMPTY;
+
+    private PluginRegistry(final PluginRegistry parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * @return empty registry, independent of {@link #INSTANCE}
+     */
+    public static PluginRegistry newInstance() {
+        return new PluginRegistry(null);
+    }
+
+    /**
+     * @return empty registry falling back to plugins of given registry
+     */
+    public static PluginRegistry layeredOver(final PluginRegistry parent) {
+        return new PluginRegistry(Objects.requireNonNull(parent));
     }
 
+    /**
+     * @return plugin registered under given key or null if there's no such plugin
+     */
+    public JsonPlugin get(final String key) {
+        return plugins().get(key);
+    }
+
+    /**
+     * Registers given plugin unless there's already one registered under the same key in this registry.
+     * Plugin of parent registry deregistered in this one is replaced by given plugin.
+     */
     public void register(final JsonPlugin plugin) {
-        putIfAbsent(plugin.getKey(), plugin);
+        Snapshot current;
+        do {
+            current = snapshot.get();
+            if (current.plugins.containsKey(plugin.getKey())) {
+                return;
+            }
+        } while (!snapshot.compareAndSet(current, current.with(plugin)));
     }
 
+    /**
+     * Deregisters plugin registered under given key.
+     * Plugin of parent registry is hidden in this registry, while the parent itself is not affected.
+     */
     public void deregister(final String key) {
-        remove(key);
+        Snapshot current;
+        do {
+            current = snapshot.get();
+            final boolean isOwn = current.plugins.containsKey(key);
+            final boolean isInherited =
+                    Objects.nonNull(parent) && !current.hiddenKeys.contains(key) && Objects.nonNull(parent.get(key));
+            if (!isOwn && !isInherited) {
+                return;
+            }
+        } while (!snapshot.compareAndSet(current, current.without(key, Objects.nonNull(parent))));
+    }
+
+    /**
+     * @return number which changes whenever a plugin is registered or deregistered in this or parent registry
+     */
+    public int version() {
+        final int version = snapshot.get().version;
+        return Objects.isNull(parent) ? version : version + parent.version();
     }
 
     public Set<JsonPlugin> getPlugins() {
-        return Sets.newHashSet(values());
+        return ImmutableSet.copyOf(plugins().values());
     }
 
+    /**
+     * @return immutable view of all plugins available through this registry, keyed by plugin key
+     */
+    public Map<String, JsonPlugin> plugins() {
+
+        if (Objects.isNull(parent)) {
+            return snapshot.get().plugins;
+        }
+
+        Snapshot layered = layeredSnapshot;
+        final int version = version();
+        if (layered.version != version) {
+            // version is read before plugins, so changes made while merging invalidate the snapshot again
+            final Snapshot own = snapshot.get();
+            final Map<String, JsonPlugin> plugins = Maps.newHashMap(parent.plugins());
+            plugins.keySet().removeAll(own.hiddenKeys);
+            plugins.putAll(own.plugins);
+            layered = new Snapshot(version, ImmutableMap.copyOf(plugins));
+            layeredSnapshot = layered;
+        }
+        return layered.plugins;
+    }
+
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(0, ImmutableMap.of());
+
+        private final int version;
+        private final ImmutableMap<String, JsonPlugin> plugins;
+        // keys of parent plugins deregistered in this registry
+        private final ImmutableSet<String> hiddenKeys;
+
+        private Snapshot(final int version, final ImmutableMap<String, JsonPlugin> plugins) {
+            this(version, plugins, ImmutableSet.of());
+        }
+
+        private Snapshot(final int version, final ImmutableMap<String, JsonPlugin> plugins, final ImmutableSet<String> hiddenKeys) {
+            this.version = version;
+            this.plugins = plugins;
+            this.hiddenKeys = hiddenKeys;
+        }
+
+        private Snapshot with(final JsonPlugin plugin) {
+            final String key = plugin.getKey();
+            final ImmutableMap<String, JsonPlugin> newPlugins =
+                    ImmutableMap.<String, JsonPlugin>builder()
+                            .putAll(plugins)
+                            .put(key, plugin)
+                            .build();
+            return new Snapshot(version + 1, newPlugins, ImmutableSet.copyOf(Sets.filter(hiddenKeys, k -> !key.equals(k))));
+        }
+
+        private Snapshot without(final String key, final boolean isLayered) {
+            final ImmutableMap<String, JsonPlugin> newPlugins = ImmutableMap.copyOf(Maps.filterKeys(plugins, k -> !key.equals(k)));
+            final ImmutableSet<String> newHiddenKeys =
+                    isLayered ? ImmutableSet.<String>builder().addAll(hiddenKeys).add(key).build() : hiddenKeys;
+            return new Snapshot(version + 1, newPlugins, newHiddenKeys);
+        }
+    }
 }
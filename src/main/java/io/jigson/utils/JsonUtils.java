@@ -29,7 +29,6 @@ import static org.apache.commons.lang3.StringUtils.INDEX_NOT_FOUND;
 public class JsonUtils {
 
     private static final Gson gson = new Gson();
-    private static final int INDEX_ZERO = 0;
 
     public static Gson getMapper() {
         return gson;
@@ -83,8 +82,9 @@ public class JsonUtils {
     }
 
     public static JsonArray clearJsonArray(final JsonArray jsonArray) {
-        while (jsonArray.size() > 0) {
-            jsonArray.remove(INDEX_ZERO);
+        // removing from the end doesn't shift remaining elements
+        for (int i = jsonArray.size() - 1; i >= 0; --i) {
+            jsonArray.remove(i);
         }
         return jsonArray;
     }
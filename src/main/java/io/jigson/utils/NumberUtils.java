@@ -22,4 +22,65 @@ public class NumberUtils {
 
     public static final BigDecimal MIN_VALUE = BigDecimal.valueOf(Integer.MIN_VALUE);
     public static final BigDecimal MAX_VALUE = BigDecimal.valueOf(Integer.MAX_VALUE);
+
+    /**
+     * Maximum amount of decimal digits which always fits in {@code long}.
+     */
+    public static final int MAX_LONG_DIGITS = 18;
+
+    /**
+     * Maximum amount of significant decimal digits which always survive conversion to {@code double}.
+     */
+    public static final int MAX_DOUBLE_DIGITS = 15;
+
+    /**
+     * Greatest {@code long} which is represented by {@code double} exactly, as well as all smaller ones.
+     */
+    public static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    private static final int RADIX = 10;
+
+    /**
+     * Works as {@link org.apache.commons.lang3.StringUtils#isNumeric(CharSequence)},
+     * but starts checking at given offset.
+     */
+    public static boolean isDigits(final CharSequence value, final int offset) {
+        final int length = value.length();
+        if (offset >= length) {
+            return false;
+        }
+        for (int i = offset; i < length; ++i) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses digits starting at given offset, so at most {@link #MAX_LONG_DIGITS} of them should be given.
+     */
+    public static long parseDigits(final CharSequence value, final int offset) {
+        long result = 0;
+        for (int i = offset; i < value.length(); ++i) {
+            result = result * RADIX + Character.digit(value.charAt(i), RADIX);
+        }
+        return result;
+    }
+
+    /**
+     * @return amount of decimal digits in given number, or -1 when it's written in scientific notation
+     */
+    public static int countDigits(final CharSequence number) {
+        int digits = 0;
+        for (int i = 0; i < number.length(); ++i) {
+            final char character = number.charAt(i);
+            if (character == 'e' || character == 'E') {
+                return -1;
+            } else if (Character.isDigit(character)) {
+                digits++;
+            }
+        }
+        return digits;
+    }
 }
@@ -5,15 +5,23 @@ import com.google.gson.JsonNull;
 import com.google.gson.JsonPrimitive;
 import io.jigson.core.Jigson;
 import io.jigson.core.PluginsConfig;
+import io.jigson.core.plugin.CountPlugin;
 import io.jigson.pipe.JigsonContext;
 import io.jigson.plugin.JsonPlugin;
 import io.jigson.plugin.PluginRegistry;
+import org.junit.After;
 import org.junit.Test;
 
 import static com.google.common.truth.Truth.assertThat;
 
 public class PluginTest {
 
+    @After
+    public void restoreEmbeddedPlugins() {
+        // embedded plugins are registered once, not by every Jigson
+        PluginRegistry.INSTANCE.register(CountPlugin.INSTANCE);
+    }
+
     @Test
     public void shouldDeregisterExistingPlugin() {
 
@@ -0,0 +1,188 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.jigson.core.flow.QueryProfile;
+import io.jigson.core.flow.StepProfile;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.jigson.utils.JsonUtils.getMapper;
+
+public class CompiledQueryTest {
+
+    private static final String PEOPLE_JSON =
+            "{\"people\":[{\"firstName\":\"John\",\"lastName\":\"Snow\",\"age\":\"25\",\"address\":{\"city\":\"Castle Black\"}}," +
+                    "{\"firstName\":\"Sansa\",\"lastName\":\"Stark\",\"age\":\"20\",\"address\":{\"city\":\"Winterfell\"}}]}";
+    private static final String OTHER_PEOPLE_JSON =
+            "{\"people\":[{\"firstName\":\"Arya\",\"lastName\":\"Stark\",\"age\":\"12\",\"address\":{\"city\":\"Braavos\"}}]}";
+
+    private JsonObject peopleObject;
+    private JsonObject otherPeopleObject;
+
+    @Before
+    public void init() {
+        this.peopleObject = getMapper().fromJson(PEOPLE_JSON, JsonObject.class);
+        this.otherPeopleObject = getMapper().fromJson(OTHER_PEOPLE_JSON, JsonObject.class);
+        JigsonConfigHolder.init();
+    }
+
+    @Test
+    public void shouldRunSameQueryAgainstManyDocuments() {
+
+        // given
+        final CompiledQuery query = Jigson.compile("@people.address.city");
+
+        // when
+        final JsonElement cities = query.run(peopleObject);
+        final JsonElement otherCities = query.run(otherPeopleObject);
+
+        // then
+        assertThat(cities.getAsJsonArray().size()).isEqualTo(2);
+        assertThat(otherCities.getAsJsonArray().size()).isEqualTo(1);
+        assertThat(otherCities.getAsJsonArray().get(0).getAsString()).isEqualTo("Braavos");
+    }
+
+    @Test
+    public void shouldGiveSameResultAsParse_WhenCriterionAndPluginApplied() {
+
+        // given
+        final String rawQuery = "@people(age>10).age.sum()";
+        final CompiledQuery query = Jigson.compile(rawQuery);
+
+        // when
+        final JsonElement compiledResult = query.run(peopleObject);
+        final JsonElement parsedResult = Jigson.from(peopleObject).parse(rawQuery);
+
+        // then
+        assertThat(compiledResult).isEqualTo(parsedResult);
+        assertThat(compiledResult.getAsInt()).isEqualTo(45);
+        assertThat(query.run(peopleObject)).isEqualTo(parsedResult);
+    }
+
+    @Test
+    public void shouldKeepElements_WhenRunRepeatedly() {
+
+        // given
+        final CompiledQuery query = Jigson.compile("#people.address(city=Winterfell)");
+        JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().onlyMatching());
+
+        // when
+        final JsonElement first = query.run(peopleObject);
+        final JsonElement second = query.run(peopleObject);
+
+        // then
+        final JsonArray people = first.getAsJsonObject().getAsJsonArray("people");
+        assertThat(people.size()).isEqualTo(1);
+        assertThat(second).isEqualTo(first);
+        assertThat(peopleObject.getAsJsonArray("people").size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldEvaluateExpression_WhenRunRepeatedly() {
+
+        // given
+        final CompiledQuery query = Jigson.compile("$people.count() >= 2");
+
+        // when
+        final boolean first = query.run(peopleObject).getAsBoolean();
+        final boolean second = query.run(otherPeopleObject).getAsBoolean();
+
+        // then
+        assertThat(query.getMode()).isEqualTo(Token.DOLLAR_SYMBOL);
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+    }
+
+    @Test
+    public void shouldExplainEachStepOfPlan() {
+
+        // given
+        final String rawQuery = "@people[0:2](age>10).address.city.count()";
+
+        // when
+        final String explanation = Jigson.explain(rawQuery);
+
+        // then
+        assertThat(explanation.split(System.lineSeparator())).asList().containsExactly(
+                "Fetch Mode: " + rawQuery,
+                "1. people[0:2](age>10) - attribute 'people', slice, criterion",
+                "2. address - attribute 'address'",
+                "3. city - attribute 'city'",
+                "4. count() - plugin").inOrder();
+    }
+
+    @Test
+    public void shouldProfileEachStep_WhenFetchModeQueryIsRun() {
+
+        // given
+        final String rawQuery = "@people(age>21).address.city";
+        JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().onlyMatching());
+
+        // when
+        final QueryProfile profile = Jigson.from(peopleObject).profile(rawQuery);
+
+        // then
+        final List<StepProfile> steps = profile.getSteps();
+        assertThat(profile.getResult()).isEqualTo(Jigson.from(peopleObject).parse(rawQuery));
+        assertThat(steps).hasSize(3);
+        assertThat(steps.get(0).getPath()).isEqualTo("people(age>21)");
+        assertThat(steps.get(0).getElementsIn()).isEqualTo(1);
+        assertThat(steps.get(0).getElementsOut()).isEqualTo(1);
+        assertThat(steps.get(0).getEvaluations()).isEqualTo(2);
+        assertThat(steps.get(2).getElementsOut()).isEqualTo(1);
+        assertThat(steps.get(2).getEvaluations()).isEqualTo(0);
+        assertThat(profile.toString()).contains("address");
+    }
+
+    @Test
+    public void shouldProfileWholeQuery_WhenExpressionModeQueryIsRun() {
+
+        // when
+        final QueryProfile profile = Jigson.compile("$people.count() >= 2").profile(peopleObject);
+
+        // then
+        assertThat(profile.getResult().getAsBoolean()).isTrue();
+        assertThat(profile.getSteps()).hasSize(1);
+    }
+
+    @Test(expected = IllegalPrefixTokenException.class)
+    public void shouldThrowException_WhenPrefixIsNotRecognized() {
+
+        // given
+        final String rawQuery = "people.age";
+
+        // when
+        Jigson.compile(rawQuery);
+    }
+
+    @Test(expected = IllegalQueryException.class)
+    public void shouldThrowExceptionWhileCompiling_WhenComparisonOperatorNotFound() {
+
+        // given
+        final String rawQuery = "$people.size()";
+
+        // when
+        Jigson.compile(rawQuery);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import io.jigson.core.plugin.UnrecognizedPluginException;
+import io.jigson.pipe.JigsonContext;
+import io.jigson.plugin.JsonPlugin;
+import io.jigson.plugin.PluginRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class JigsonEngineTest {
+
+    private static final String PEOPLE_JSON =
+            "{\"people\":[\"unknown\",{\"firstName\":\"John\",\"age\":25},{\"firstName\":\"Sansa\",\"age\":20}," +
+                    "{\"firstName\":\"Arya\",\"age\":12}]}";
+
+    private JsonObject peopleObject;
+
+    @Before
+    public void init() {
+        this.peopleObject = new JsonParser().parse(PEOPLE_JSON).getAsJsonObject();
+        JigsonConfigHolder.init();
+    }
+
+    @Test
+    public void shouldUseEngineConfig_WithoutChangingThreadConfig() {
+
+        // given
+        final JigsonConfig threadConfig = JigsonConfigHolder.get();
+        final JigsonEngine engine = JigsonEngine.newInstance(JigsonConfig.newInstance().filters().arrays().onlyMatching());
+
+        // when
+        final JsonElement result = engine.on(peopleObject).parse("@people(age>18)");
+
+        // then
+        assertThat(result.getAsJsonArray().size()).isEqualTo(2);
+        assertThat(JigsonConfigHolder.get()).isSameAs(threadConfig);
+    }
+
+    @Test
+    public void shouldLeaveGivenContextUnchanged_WhenQueryIsParsed() {
+
+        // given
+        final JigsonConfig threadConfig = JigsonConfig.newInstance().filters().arrays().keepMatchingAndPrimitives();
+        JigsonConfigHolder.set(threadConfig);
+        final JigsonEngine engine = JigsonEngine.newInstance(JigsonConfig.newInstance().filters().arrays().onlyMatching());
+        final JigsonContext context = JigsonContext.newContext();
+        final Jigson jigson = engine.on(peopleObject);
+
+        // when
+        jigson.parse("@people(age>18)", context);
+        jigson.profile("@people(age>18)", context);
+        jigson.parseAll(Collections.singletonList("@people(age>18)"), context);
+
+        // then
+        assertThat(context.config()).isSameAs(threadConfig);
+        assertThat(context.pluginRegistry()).isSameAs(PluginRegistry.INSTANCE);
+        assertThat(Jigson.compile("@people(age>18)").run(peopleObject, context).getAsJsonArray().size()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldNotResetThreadConfig_WhenJigsonIsCreated() {
+
+        // given
+        final JigsonConfig threadConfig = JigsonConfig.newInstance().filters().arrays().keepMatchingAndPrimitives();
+        JigsonConfigHolder.set(threadConfig);
+
+        // when
+        final JsonElement result = Jigson.from(peopleObject).parse("@people(age>18)");
+
+        // then
+        assertThat(result.getAsJsonArray().size()).isEqualTo(3);
+        assertThat(JigsonConfigHolder.get()).isSameAs(threadConfig);
+    }
+
+    @Test
+    public void shouldNotBeAffected_WhenGivenConfigChangesAfterwards() {
+
+        // given
+        final JigsonConfig config = JigsonConfig.newInstance().numbers().withPrecision(3);
+        final JigsonEngine engine = JigsonEngine.newInstance(config);
+
+        // when
+        config.numbers().withPrecision(0);
+        final JsonElement average = engine.on(peopleObject).parse("@people.age.avg()");
+
+        // then
+        assertThat(average.getAsBigDecimal().scale()).isEqualTo(3);
+        assertThat(engine.config().numbers().precision()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldKeepPluginsWithinEngine() {
+
+        // given
+        final JigsonEngine engine = JigsonEngine.newInstance();
+        final JigsonEngine extendedEngine = engine.withPlugin(constantPlugin("oldest")).withoutPlugin("min");
+
+        // when
+        final JsonElement result = extendedEngine.on(peopleObject).parse("@people.oldest()");
+
+        // then
+        assertThat(result.getAsString()).isEqualTo("oldest");
+        assertThat(extendedEngine.hasPlugin("min")).isFalse();
+        assertThat(engine.hasPlugin("min")).isTrue();
+        assertThat(engine.hasPlugin("oldest")).isFalse();
+        assertThat(PluginRegistry.INSTANCE.get("oldest")).isNull();
+    }
+
+    @Test(expected = UnrecognizedPluginException.class)
+    public void shouldNotSeePluginsRegisteredByBoundJigson() {
+
+        // given
+        final JigsonEngine engine = JigsonEngine.newInstance();
+        engine.on(peopleObject).pluginsConfig().registerPlugin(constantPlugin("local"));
+
+        // when
+        engine.on(peopleObject).parse("@people.local()");
+    }
+
+    @Test
+    public void shouldGiveSameResults_WhenSharedBetweenThreads() throws Exception {
+
+        // given
+        final JigsonEngine engine = JigsonEngine.newInstance(JigsonConfig.newInstance().filters().arrays().onlyMatching());
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        // when
+        final List<Future<JsonElement>> results = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            results.add(executorService.submit(() -> engine.on(peopleObject).parse("@people(age>18).firstName")));
+        }
+
+        // then
+        for (final Future<JsonElement> result : results) {
+            assertThat(result.get().getAsJsonArray().size()).isEqualTo(2);
+        }
+        executorService.shutdown();
+    }
+
+    private static JsonPlugin constantPlugin(final String key) {
+        return new JsonPlugin() {
+            @Override
+            public String getKey() {
+                return key;
+            }
+
+            @Override
+            public JsonElement flow(final JsonElement input, final JigsonContext context) {
+                return new JsonPrimitive(key);
+            }
+        };
+    }
+}
@@ -162,6 +162,29 @@ public class JigsonFetchTest {
         assertThat(result.getAsJsonPrimitive().getAsBigDecimal()).isEqualTo(expectedAvg);
     }
 
+    @Test
+    public void shouldResolveAllStatsOfAges_WhenStatsPluginApplied() {
+
+        // given
+        final JigsonConfig config =
+                JigsonConfig.newInstance()
+                        .filters().arrays().keepMatchingAndPrimitives()
+                        .numbers().withPrecisionAnd(2).withRoundingMode(BigDecimal.ROUND_HALF_UP);
+        final Jigson jigson = Jigson.from(peopleObject).withConfig(config);
+
+        // when
+        final JsonElement result = jigson.parse("@people.age.stats()");
+
+        // then
+        assertThat(result.isJsonObject()).isTrue();
+        final JsonObject stats = result.getAsJsonObject();
+        assertThat(stats.get("count").getAsInt()).isEqualTo(2);
+        assertThat(stats.get("sum")).isEqualTo(jigson.parse("@people.age.sum()"));
+        assertThat(stats.get("min")).isEqualTo(jigson.parse("@people.age.min()"));
+        assertThat(stats.get("max")).isEqualTo(jigson.parse("@people.age.max()"));
+        assertThat(stats.get("avg").getAsBigDecimal()).isEqualTo(new BigDecimal("22.50"));
+    }
+
     @Test
     public void shouldSumAges_WhenCriterionIsApplied() {
 
@@ -0,0 +1,162 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class LexerTest {
+
+    @Test
+    public void shouldProduceSameTokensAsTokenizer_WhenQueryGiven() {
+
+        // given
+        final String expr = "$store(imie!=ADAM).books[1:3].cover(colour=red).image(width<=300) => {\"status\" : \"OK\"}";
+
+        // when
+        final List<Token> actualTokens = Lexer.QUERY.tokenize(expr);
+
+        // then
+        final List<Token> expectedTokens = TokenizerFactory.createQueryTokenizer().tokenize(expr);
+        assertThat(toText(actualTokens)).containsExactlyElementsIn(toText(expectedTokens)).inOrder();
+        assertThat(toIndexes(actualTokens)).containsExactlyElementsIn(toIndexes(expectedTokens)).inOrder();
+    }
+
+    @Test
+    public void shouldProduceSameTokensAsTokenizer_WhenCriteriaGiven() {
+
+        // given
+        final String expr = "age>=18&&name!=John||city_2=Winterfell";
+
+        // when
+        final List<Token> actualTokens = Lexer.CRITERIA.tokenize(expr);
+
+        // then
+        final List<Token> expectedTokens = TokenizerFactory.createCriteriaTokenizer().tokenize(expr);
+        assertThat(toText(actualTokens)).containsExactlyElementsIn(toText(expectedTokens)).inOrder();
+        assertThat(toIndexes(actualTokens)).containsExactlyElementsIn(toIndexes(expectedTokens)).inOrder();
+    }
+
+    @Test
+    public void shouldProduceSameTokensAsTokenizer_WhenSliceGiven() {
+
+        // given
+        final List<String> slices = ImmutableList.of(
+                "1:10:2", "::", ":", "1:", ":10", "::2", "1::2", "-1:", "-3:-1", "1:-10:-2", "::-1",
+                " 1 : 10 : 2 ", "1 :: 2", "10", "1.5:2", "1:10:2]", "[1:10:2]", "a:b", " ", "");
+
+        // when
+        // then
+        slices.forEach(slice -> assertSameOutcome(Lexer.SLICE, TokenizerFactory.createSliceTokenizer(), slice));
+    }
+
+    @Test
+    public void shouldProduceSameTokensAsTokenizer_WhenComparisonGiven() {
+
+        // given
+        final List<String> comparisons = ImmutableList.of(
+                "=", "==", "!=", "<", "<=", ">", ">=", "=<", "=>", "<>", "!", "! =", "< =",
+                " <= ", "\t>=\n", " != ", " == ", "<=>=", ">= <=", "<<", "=!=", " ", "");
+
+        // when
+        // then
+        comparisons.forEach(comparison ->
+                assertSameOutcome(Lexer.COMPARISON, TokenizerFactory.createComparisonTokenizer(), comparison));
+    }
+
+    @Test
+    public void shouldProduceSameTokensAsTokenizer_WhenSliceOrComparisonIsPartOfQuery() {
+
+        // given
+        final List<String> queries = ImmutableList.of(
+                "@people[1:10:2].age", "@people[::].age", "@people[ : ].age", "@people[-1:].age", "@people[::-2]",
+                "@people[ 1 : 10 : 2 ].age", "@people[].age", "@people[0]",
+                "@people(age <= 30).name", "@people(age>=18 && name != John)", "@people(age == 3)",
+                "$people.age.max() >= 30", "$people.age.max()<=30", "$people.size() != 2", "$people.size()== 2");
+
+        // when
+        // then
+        queries.forEach(query -> assertSameOutcome(Lexer.QUERY, TokenizerFactory.createQueryTokenizer(), query));
+    }
+
+    @Test
+    public void shouldProduceSameTokensAsTokenizer_WhenComparisonInCriteriaIsNextToWhitespace() {
+
+        // given
+        final List<String> criteria = ImmutableList.of(
+                "age <= 18", "age>= 18", "age !=18", "age == 18", "age = 18", "age < 18 || age > 60",
+                "name != John && age >= 18", "age =< 18", "age ! = 18");
+
+        // when
+        // then
+        criteria.forEach(criterion -> assertSameOutcome(Lexer.CRITERIA, TokenizerFactory.createCriteriaTokenizer(), criterion));
+    }
+
+    @Test
+    public void shouldStopAtFirstUnknownSymbol() {
+
+        // given
+        final String expr = "10:20 ; 30";
+
+        // when
+        final List<Token> tokens = Lexer.SLICE.tokenize(expr);
+
+        // then
+        assertThat(toText(tokens)).containsExactly("10", ":", "20").inOrder();
+        assertThat(tokens.get(2).getStart()).isEqualTo(3);
+        assertThat(tokens.get(2).getEnd()).isEqualTo(5);
+    }
+
+    @Test(expected = UnexpectedSymbolException.class)
+    public void shouldThrowException_WhenNoTokenRecognized() {
+
+        // given
+        final String expr = " @people";
+
+        // when
+        Lexer.QUERY.tokenize(expr);
+    }
+
+    private static void assertSameOutcome(final Lexer lexer, final Tokenizer tokenizer, final String expr) {
+        assertThat(outcome(() -> lexer.tokenize(expr))).named("'" + expr + "'").isEqualTo(outcome(() -> tokenizer.tokenize(expr)));
+    }
+
+    /**
+     * @return text and type of each token, or class of exception thrown instead
+     */
+    private static String outcome(final Supplier<List<Token>> tokenization) {
+        try {
+            return tokenization.get().stream().map(token -> token.getToken() + "#" + token.getIndex()).collect(Collectors.joining(" "));
+        } catch (final RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private static List<String> toText(final List<Token> tokens) {
+        return tokens.stream().map(Token::getToken).collect(Collectors.toList());
+    }
+
+    private static List<Integer> toIndexes(final List<Token> tokens) {
+        return tokens.stream().map(Token::getIndex).collect(Collectors.toList());
+    }
+}
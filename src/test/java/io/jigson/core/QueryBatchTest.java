@@ -0,0 +1,164 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.jigson.core.flow.BatchFetchFlow;
+import io.jigson.core.flow.Query;
+import io.jigson.core.flow.QueryPlan;
+import io.jigson.core.flow.QueryResult;
+import io.jigson.metrics.HistogramMetrics;
+import io.jigson.pipe.JigsonContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.jigson.utils.JsonUtils.getMapper;
+
+public class QueryBatchTest {
+
+    private static final String ORDER_JSON =
+            "{\"order\":{\"id\":\"17\",\"customer\":{\"name\":\"John\",\"address\":{\"city\":\"Castle Black\"}}," +
+                    "\"items\":[{\"name\":\"sword\",\"price\":\"100\"},{\"name\":\"cloak\",\"price\":\"25.50\"}," +
+                    "{\"name\":\"boots\",\"price\":\"40\"}]}}";
+
+    private static final List<String> QUERIES = ImmutableList.of(
+            "@order.customer.name",
+            "@order.customer.address.city",
+            "@order.customer",
+            "@order.items(price>30).name",
+            "@order.items(price>30).price.sum()",
+            "@order.items.price.max()",
+            "#order.items(name=cloak)",
+            "$order.items.count() > 2",
+            "@order.customer.name");
+
+    private JsonObject orderObject;
+
+    @Before
+    public void init() {
+        this.orderObject = getMapper().fromJson(ORDER_JSON, JsonObject.class);
+        JigsonConfigHolder.init();
+    }
+
+    @Test
+    public void shouldGiveSameResultsAsParse_WhenQueriesParsedTogether() {
+
+        // given
+        final Jigson jigson = Jigson.from(orderObject);
+        final List<JsonElement> expectedResults = QUERIES.stream().map(jigson::parse).collect(Collectors.toList());
+
+        // when
+        final List<JsonElement> results = jigson.parseAll(QUERIES).stream().map(QueryResult::get).collect(Collectors.toList());
+
+        // then
+        assertThat(results).containsExactlyElementsIn(expectedResults).inOrder();
+        assertThat(results.get(0).getAsString()).isEqualTo("John");
+        assertThat(results.get(4).getAsString()).isEqualTo("165.50");
+        assertThat(results.get(7).getAsBoolean()).isTrue();
+    }
+
+    @Test
+    public void shouldResolveSharedPrefixOnce() {
+
+        // given
+        final List<QueryPlan> plans = ImmutableList.of(
+                QueryPlan.from(queryOf("@order.customer.name")),
+                QueryPlan.from(queryOf("@order.customer.address.city")),
+                QueryPlan.from(queryOf("@order.items(price>30).name")),
+                QueryPlan.from(queryOf("@order.items(price>30).price.sum()")));
+
+        // when
+        final BatchFetchFlow flow = new BatchFetchFlow(plans);
+
+        // then
+        assertThat(flow.countSteps()).isEqualTo(9);
+        assertThat(flow.flow(orderObject)).hasSize(4);
+    }
+
+    @Test
+    public void shouldRunCompiledBatchAgainstManyDocuments() {
+
+        // given
+        final QueryBatch batch = Jigson.compileAll(ImmutableList.of("@order.id", "@order.customer.name"));
+        final JsonObject otherOrder = getMapper().fromJson("{\"order\":{\"id\":\"18\"}}", JsonObject.class);
+
+        // when
+        final List<QueryResult> results = batch.run(orderObject);
+        final List<QueryResult> otherResults = batch.run(otherOrder);
+
+        // then
+        assertThat(results.get(0).get().getAsString()).isEqualTo("17");
+        assertThat(otherResults.get(0).get().getAsString()).isEqualTo("18");
+        assertThat(otherResults.get(1).get().isJsonNull()).isTrue();
+    }
+
+    @Test
+    public void shouldGiveResultsOfOtherQueries_WhenOneOfThemFails() {
+
+        // given
+        final QueryBatch batch = Jigson.compileAll(ImmutableList.of(
+                "@order.items[10].name",
+                "@order.items[0].name",
+                "@order.items[10]",
+                "$order.items[10].price > 1",
+                "@order.customer.name"));
+
+        // when
+        final List<QueryResult> results = batch.run(orderObject);
+
+        // then
+        assertThat(results.get(0).isFailed()).isTrue();
+        assertThat(results.get(0).getError().get()).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThat(results.get(1).get().getAsString()).isEqualTo("sword");
+        assertThat(results.get(2).isFailed()).isTrue();
+        assertThat(results.get(3).isFailed()).isTrue();
+        assertThat(results.get(4).get().getAsString()).isEqualTo("John");
+    }
+
+    @Test
+    public void shouldReportEachQueryToMetrics() {
+
+        // given
+        final HistogramMetrics metrics = HistogramMetrics.newInstance();
+        final JigsonContext context = JigsonContext.newContext().withConfig(JigsonConfig.newInstance().metrics().recordTo(metrics));
+        final QueryBatch batch = Jigson.compileAll(ImmutableList.of(
+                "@order.customer.name",
+                "@order.items[10].name",
+                "$order.items.count() > 2"));
+
+        // when
+        batch.run(orderObject, context);
+
+        // then
+        assertThat(metrics.queries().keySet())
+                .containsExactly("@order.customer.name", "@order.items[10].name", "$order.items.count() > 2");
+        assertThat(metrics.query("@order.customer.name").count()).isEqualTo(1);
+        assertThat(metrics.failures()).isEqualTo(1);
+    }
+
+    private static Query queryOf(final String rawQuery) {
+        final Query query = Query.from(rawQuery);
+        query.next();
+        return query;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.common.cache.CacheStats;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+public class QueryCacheTest {
+
+    @Test
+    public void shouldCompileQueryOnce_WhenSameQueryRequestedRepeatedly() {
+
+        // given
+        final QueryCache cache = QueryCache.newInstance(16);
+
+        // when
+        final CompiledQuery first = cache.get("@people(age>20).firstName");
+        final CompiledQuery second = cache.get("  @people(age>20).firstName ");
+
+        // then
+        final CacheStats stats = cache.stats();
+        assertThat(second).isSameAs(first);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedQuery_WhenCapacityExceeded() {
+
+        // given
+        final QueryCache cache = QueryCache.newInstance(1);
+
+        // when
+        final CompiledQuery first = cache.get("@people.firstName");
+        cache.get("@people.lastName");
+        final CompiledQuery firstAgain = cache.get("@people.firstName");
+
+        // then
+        assertThat(firstAgain).isNotSameAs(first);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.stats().evictionCount()).isAtLeast(1L);
+    }
+
+    @Test
+    public void shouldNotCacheQuery_WhenItCannotBeCompiled() {
+
+        // given
+        final QueryCache cache = QueryCache.newInstance(16);
+
+        // when
+        try {
+            cache.get("people.firstName");
+            fail("Expected IllegalPrefixTokenException");
+        } catch (final IllegalPrefixTokenException e) {
+            // expected
+        }
+
+        // then
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotShareCache_WhenConfigsHaveSameCapacity() {
+
+        // given
+        final JigsonConfig config = JigsonConfig.newInstance().cache().withCapacity(32);
+        final JigsonConfig otherConfig = JigsonConfig.newInstance().cache().withCapacity(32);
+
+        // when
+        config.cache().queries().get("@people.firstName");
+
+        // then
+        assertThat(config.cache().queries()).isSameAs(config.cache().queries());
+        assertThat(config.cache().queries().capacity()).isEqualTo(32);
+        assertThat(otherConfig.cache().queries().size()).isEqualTo(0);
+        assertThat(otherConfig.cache().queries().stats().missCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldShareCache_WhenThreadsUseDefaultConfig() throws Exception {
+
+        // given
+        final String rawQuery = "@people(age>20).nickName";
+        final JsonObject peopleObject = new JsonParser().parse("{\"people\":[{\"age\":30,\"nickName\":\"Ned\"}]}").getAsJsonObject();
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        // when
+        final Future<CompiledQuery> first = executorService.submit(() -> {
+            JigsonConfigHolder.init();
+            Jigson.from(peopleObject).parse(rawQuery);
+            return JigsonConfigHolder.get().cache().queries().get(rawQuery);
+        });
+        first.get();
+        final Future<CompiledQuery> second = executorService.submit(() -> {
+            JigsonConfigHolder.init();
+            final long hits = JigsonConfigHolder.get().cache().queries().stats().hitCount();
+            Jigson.from(peopleObject).parse(rawQuery);
+            assertThat(JigsonConfigHolder.get().cache().queries().stats().hitCount()).isGreaterThan(hits);
+            return JigsonConfigHolder.get().cache().queries().get(rawQuery);
+        });
+        executorService.shutdown();
+
+        // then
+        assertThat(second.get()).isSameAs(first.get());
+        assertThat(JigsonConfig.newInstance().cache().queries()).isSameAs(JigsonConfigHolder.get().cache().queries());
+        assertThat(JigsonConfig.newInstance().cache().queries().capacity()).isEqualTo(512);
+    }
+
+    @Test
+    public void shouldKeepCacheForEngine_WhenPluginIsAdded() {
+
+        // given
+        final JigsonEngine engine = JigsonEngine.newInstance(JigsonConfig.newInstance());
+        final CompiledQuery query = engine.compile("@people.firstName");
+
+        // when
+        final JigsonEngine otherEngine = engine.withoutPlugin("sum");
+
+        // then
+        assertThat(otherEngine.compile("@people.firstName")).isSameAs(query);
+        assertThat(JigsonEngine.newInstance(JigsonConfig.newInstance()).queries().size()).isEqualTo(0);
+        assertThat(engine.queries()).isNotSameAs(JigsonConfig.newInstance().cache().queries());
+    }
+}
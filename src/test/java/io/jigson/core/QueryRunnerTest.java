@@ -0,0 +1,164 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.jigson.pipe.JigsonContext;
+import io.jigson.plugin.JsonPlugin;
+import io.jigson.plugin.PluginRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class QueryRunnerTest {
+
+    private static final int DOCUMENTS = 1000;
+
+    @Before
+    public void init() {
+        JigsonConfigHolder.init();
+    }
+
+    @Test
+    public void shouldRunQueryAgainstEachDocument() {
+
+        // given
+        final QueryRunner runner = QueryRunner.of(Jigson.compile("@order.total"));
+
+        // when
+        final List<Integer> totals = runner.run(orders(DOCUMENTS)).map(JsonElement::getAsInt).collect(Collectors.toList());
+
+        // then
+        assertThat(runner.isParallel()).isFalse();
+        assertThat(totals).containsExactlyElementsIn(expectedTotals(DOCUMENTS)).inOrder();
+    }
+
+    @Test
+    public void shouldKeepOrderOfDocuments_WhenRunInParallel() {
+
+        // given
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final QueryRunner runner = QueryRunner.of(Jigson.compile("@order.total")).parallel(7, 3, executor);
+
+        // when
+        final List<Integer> totals = runner.run(orders(DOCUMENTS)).map(JsonElement::getAsInt).collect(Collectors.toList());
+        executor.shutdown();
+
+        // then
+        assertThat(runner.isParallel()).isTrue();
+        assertThat(totals).containsExactlyElementsIn(expectedTotals(DOCUMENTS)).inOrder();
+    }
+
+    @Test
+    public void shouldReadBoundedNumberOfDocumentsAhead_WhenRunInParallel() {
+
+        // given
+        final AtomicInteger readDocuments = new AtomicInteger();
+        final Iterator<JsonElement> documents = orders(DOCUMENTS).peek(document -> readDocuments.incrementAndGet()).iterator();
+        final QueryRunner runner = QueryRunner.of(Jigson.compile("@order.total")).parallel(10, 2);
+
+        // when
+        final Iterator<JsonElement> totals = runner.run(documents);
+        final JsonElement firstTotal = totals.next();
+
+        // then
+        assertThat(firstTotal.getAsInt()).isEqualTo(0);
+        assertThat(readDocuments.get()).isAtMost(20);
+    }
+
+    @Test
+    public void shouldUseConfigOfCallingThread_WhenRunInParallel() {
+
+        // given
+        final JigsonConfig config = JigsonConfig.newInstance().filters().arrays().onlyMatching();
+        JigsonConfigHolder.set(config);
+        final QueryRunner runner = QueryRunner.of(Jigson.compile("@order.items(price>5).price")).parallel(5, 2);
+
+        // when
+        final List<JsonElement> prices = runner.run(orders(20)).collect(Collectors.toList());
+
+        // then
+        assertThat(prices.get(3).isJsonNull()).isTrue();
+        assertThat(prices.get(10).getAsJsonArray().size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvaluateEachChunkWithItsOwnContext_WhenRunInParallel() {
+
+        // given
+        final PluginRegistry pluginRegistry = PluginRegistry.layeredOver(PluginRegistry.INSTANCE);
+        pluginRegistry.register(new JsonPlugin() {
+            @Override
+            public String getKey() {
+                return "countCalls";
+            }
+
+            @Override
+            public JsonElement flow(final JsonElement input, final JigsonContext context) {
+                final int calls = context.getInt("calls").orElse(0) + 1;
+                context.put("calls", calls);
+                return new JsonPrimitive(calls);
+            }
+        });
+        final JigsonContext context = JigsonContext.newContext().withPluginRegistry(pluginRegistry);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final QueryRunner runner = QueryRunner.of(Jigson.compile("@order.total.countCalls()"), context).parallel(10, 4, executor);
+
+        // when
+        final List<Integer> calls = runner.run(orders(DOCUMENTS)).map(JsonElement::getAsInt).collect(Collectors.toList());
+        executor.shutdown();
+
+        // then
+        assertThat(calls).containsExactlyElementsIn(
+                IntStream.range(0, DOCUMENTS).map(index -> index % 10 + 1).boxed().collect(Collectors.toList())).inOrder();
+        assertThat(context).isEmpty();
+    }
+
+    private static Stream<JsonElement> orders(final int count) {
+        return IntStream.range(0, count).mapToObj(QueryRunnerTest::order);
+    }
+
+    private static JsonElement order(final int index) {
+        final JsonObject item = new JsonObject();
+        item.addProperty("price", index);
+        final JsonArray items = new JsonArray();
+        items.add(item);
+        final JsonObject order = new JsonObject();
+        order.add("total", new JsonPrimitive(index * 2));
+        order.add("items", items);
+        final JsonObject document = new JsonObject();
+        document.add("order", order);
+        return document;
+    }
+
+    private static List<Integer> expectedTotals(final int count) {
+        return IntStream.range(0, count).map(index -> index * 2).boxed().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.jigson.core.Jigson;
+import io.jigson.core.JigsonConfig;
+import io.jigson.core.JigsonConfigHolder;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class KeepFlowTest {
+
+    private static final String EVENTS_JSON =
+            "{\"source\":{\"name\":\"web\"},\"events\":[" +
+                    "{\"type\":\"click\",\"userId\":1,\"meta\":{\"page\":\"home\"}}," +
+                    "{\"type\":\"view\",\"userId\":2,\"meta\":{\"page\":\"cart\"}}," +
+                    "\"broken\"," +
+                    "{\"type\":\"click\",\"userId\":3,\"meta\":{\"page\":\"cart\"}}]," +
+                    "\"total\":{\"clicks\":2,\"views\":{\"count\":1}}}";
+
+    private JsonObject document;
+
+    @Before
+    public void init() {
+        this.document = new JsonParser().parse(EVENTS_JSON).getAsJsonObject();
+        JigsonConfigHolder.init();
+    }
+
+    @Test
+    public void shouldNotModifyInput_WhenElementsAreFilteredOut() {
+
+        // given
+        final JigsonConfig config = JigsonConfig.newInstance().filters().arrays().onlyMatching();
+        final JsonElement snapshot = document.deepCopy();
+
+        // when
+        final JsonElement result = Jigson.from(document).withConfig(config).parse("#events(type=click).meta(page=cart)");
+
+        // then
+        assertThat(result.getAsJsonObject().getAsJsonArray("events").size()).isEqualTo(1);
+        assertThat(result).isNotEqualTo(snapshot);
+        assertThat(document).isEqualTo(snapshot);
+    }
+
+    @Test
+    public void shouldShareUntouchedSubtrees() {
+
+        // given
+        final String query = "#events(type=click)";
+        final JigsonConfig config = JigsonConfig.newInstance().filters().arrays().onlyMatching();
+
+        // when
+        final JsonObject result = Jigson.from(document).withConfig(config).parse(query).getAsJsonObject();
+
+        // then
+        assertThat(result).isNotSameAs(document);
+        assertThat(result.get("source")).isSameAs(document.get("source"));
+        assertThat(result.get("total")).isSameAs(document.get("total"));
+        assertThat(result.get("events")).isNotSameAs(document.get("events"));
+        assertThat(result.getAsJsonArray("events").get(0)).isSameAs(document.getAsJsonArray("events").get(0));
+    }
+
+    @Test
+    public void shouldRebuildOnlyObjectsAlongPath_WhenNestedObjectIsFiltered() {
+
+        // given
+        final String query = "#total.views(count=1)";
+
+        // when
+        final JsonObject result = Jigson.from(document).parse(query).getAsJsonObject();
+
+        // then
+        assertThat(result).isEqualTo(document);
+        assertThat(result.get("total")).isNotSameAs(document.get("total"));
+        assertThat(result.get("events")).isSameAs(document.get("events"));
+        assertThat(result.getAsJsonObject("total").get("clicks")).isSameAs(document.getAsJsonObject("total").get("clicks"));
+    }
+
+    @Test
+    public void shouldCopyArrayElements_WhenTheyAreModified() {
+
+        // given
+        final String query = "#events.meta(page=home)";
+
+        // when
+        final JsonObject result = Jigson.from(document).parse(query).getAsJsonObject();
+
+        // then
+        final JsonObject firstEvent = result.getAsJsonArray("events").get(0).getAsJsonObject();
+        assertThat(firstEvent).isEqualTo(document.getAsJsonArray("events").get(0));
+        assertThat(firstEvent).isNotSameAs(document.getAsJsonArray("events").get(0));
+        assertThat(firstEvent.get("meta")).isSameAs(document.getAsJsonArray("events").get(0).getAsJsonObject().get("meta"));
+        assertThat(document.getAsJsonArray("events").get(1).getAsJsonObject().has("meta")).isTrue();
+    }
+}
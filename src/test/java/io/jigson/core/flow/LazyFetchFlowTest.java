@@ -0,0 +1,162 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import io.jigson.core.CompiledQuery;
+import io.jigson.core.Jigson;
+import io.jigson.core.JigsonConfig;
+import io.jigson.core.JigsonConfigHolder;
+import io.jigson.core.plugin.IllegalJsonElementException;
+import io.jigson.json.lazy.LazyDocument;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class LazyFetchFlowTest {
+
+    private static final String EVENTS_JSON =
+            "{\"source\":\"web {[,:]}\",\"events\":[" +
+                    "{\"type\":\"click\",\"userId\":1,\"meta\":{\"page\":{\"name\":\"home\"}},\"tags\":[\"a\",\"b\"]}," +
+                    "{\"type\" : \"view\", \"userId\" : 2, \"meta\" : {\"page\" : {\"name\" : \"cart\"}}, \"tags\" : [\"c\"]}," +
+                    "\"broken\",null,[{\"type\":\"click\",\"userId\":3}]," +
+                    "{\"type\":\"click\",\"userId\":4,\"meta\":{\"page\":\"none\"},\"tags\":[]}," +
+                    "{\"type\":\"click\",\"meta\":{\"page\":{\"name\":\"home\\\"\"}},\"type\":\"view\"}]," +
+                    "\"total\":{\"clicks\":3,\"cl\\u0069cks\":5},\"empty\":{ },\"none\":[]}";
+
+    private static final List<String> QUERIES = Arrays.asList(
+            "@source",
+            "@total.clicks",
+            "@total(clicks>4)",
+            "@missing.attribute",
+            "@empty.attribute",
+            "@none.attribute",
+            "@events",
+            "@events.userId",
+            "@events.meta.page.name",
+            "@events[0].tags[1]",
+            "@events[1].meta.page",
+            "@events[5].meta",
+            "@events[1:3]",
+            "@events(type=click)",
+            "@events(type=click).userId",
+            "@events(type=click).meta.page.name",
+            "@events(type=click).userId.count()",
+            "@events(type=view||userId>=2).userId.sum()",
+            "@events.userId.max()",
+            "@events.meta.page(name=home)",
+            "@events(type=view).meta.page(name=home)",
+            "@events(type=xyz).userId"
+    );
+
+    private JsonElement document;
+    private LazyDocument lazyDocument;
+
+    @Before
+    public void init() {
+        this.document = new JsonParser().parse(EVENTS_JSON);
+        this.lazyDocument = LazyDocument.parse(EVENTS_JSON);
+        JigsonConfigHolder.init();
+    }
+
+    @Test
+    public void shouldGiveSameResultsAsFetchFlow_WhenAllIfAnyMatchingStrategyIsUsed() {
+
+        // given
+        JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().allIfAnyMatching());
+
+        // when
+        // then
+        QUERIES.forEach(this::assertSameResult);
+    }
+
+    @Test
+    public void shouldGiveSameResultsAsFetchFlow_WhenOnlyMatchingStrategyIsUsed() {
+
+        // given
+        JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().onlyMatching());
+
+        // when
+        // then
+        QUERIES.forEach(this::assertSameResult);
+    }
+
+    @Test
+    public void shouldGiveSameResultsAsFetchFlow_WhenKeepMatchingAndPrimitivesStrategyIsUsed() {
+
+        // given
+        JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().keepMatchingAndPrimitives());
+
+        // when
+        // then
+        QUERIES.forEach(this::assertSameResult);
+    }
+
+    @Test
+    public void shouldGiveRawTextOfSameResultsAsFetchFlow() {
+
+        // given
+        JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().onlyMatching());
+
+        // then
+        for (final String rawQuery : QUERIES) {
+            final CompiledQuery query = Jigson.compile(rawQuery);
+            final String raw = new String(query.runRaw(EVENTS_JSON.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+            assertThat(new JsonParser().parse(raw)).named(rawQuery).isEqualTo(query.run(document));
+        }
+    }
+
+    @Test
+    public void shouldCopyRawTextOfValue_WhenQueryPointsAtSingleValue() {
+
+        // given
+        final CompiledQuery query = Jigson.compile("@events[1].meta");
+
+        // when
+        final byte[] raw = query.runRaw(EVENTS_JSON.getBytes(StandardCharsets.UTF_8));
+
+        // then
+        assertThat(new String(raw, StandardCharsets.UTF_8)).isEqualTo("{\"page\" : {\"name\" : \"cart\"}}");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldThrowException_WhenIndexIsOutOfBounds() {
+
+        // when
+        Jigson.compile("@events[20].userId").run(lazyDocument);
+    }
+
+    @Test(expected = IllegalJsonElementException.class)
+    public void shouldThrowException_WhenIndexedAttributeIsNotArray() {
+
+        // when
+        Jigson.compile("@source[0]").run(lazyDocument);
+    }
+
+    private void assertSameResult(final String rawQuery) {
+        final CompiledQuery query = Jigson.compile(rawQuery);
+        final JsonElement expected = query.run(document);
+        final JsonElement actual = query.run(lazyDocument);
+        assertThat(actual).named(rawQuery).isEqualTo(expected);
+    }
+}
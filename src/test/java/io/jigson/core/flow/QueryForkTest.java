@@ -0,0 +1,54 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class QueryForkTest {
+
+    @Test
+    public void shouldNotMoveOriginalQuery_WhenForkConsumed() {
+
+        // given
+        final Query query = Query.from("@people.address.city");
+        query.next();
+
+        // when
+        final Query fork = query.fork();
+        final String firstForkPath = fork.nextPath();
+
+        // then
+        assertThat(firstForkPath).isEqualTo("people");
+        assertThat(fork.leftTokens()).isEqualTo(3);
+        assertThat(query.leftTokens()).isEqualTo(5);
+        assertThat(query.nextPath()).isEqualTo("people");
+    }
+
+    @Test(expected = EndOfQueryException.class)
+    public void shouldThrowException_WhenForkingConsumedQuery() {
+
+        // given
+        final Query query = Query.from("@people");
+        query.forEachRemaining(token -> {
+        });
+
+        // when
+        query.fork();
+    }
+}
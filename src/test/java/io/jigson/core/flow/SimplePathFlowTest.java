@@ -0,0 +1,101 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import io.jigson.core.JigsonConfigHolder;
+import io.jigson.core.plugin.IllegalJsonElementException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class SimplePathFlowTest {
+
+    private static final String HOUSE_JSON =
+            "{\"house\":{\"name\":\"Stark\",\"seat\":{\"castle\":\"Winterfell\",\"lord\":null}," +
+                    "\"members\":[{\"name\":\"Arya\",\"pets\":[{\"name\":\"Nymeria\"}]},\"Hodor\",{\"name\":\"Sansa\"}]," +
+                    "\"words\":[\"Winter\",\"is\",\"coming\"]}}";
+
+    private static final List<String> QUERIES = Arrays.asList(
+            "@house",
+            "@house.name",
+            "@house.seat.castle",
+            "@house.seat.lord",
+            "@house.seat.lord.name",
+            "@house.missing.name",
+            "@house.words[2]",
+            "@house.members[0].pets[0].name",
+            "@house.members[1]",
+            "@house.members.name",
+            "@house.members[0].pets.name",
+            "@house.members.pets"
+    );
+
+    private JsonElement document;
+
+    @Before
+    public void init() {
+        this.document = new JsonParser().parse(HOUSE_JSON);
+        JigsonConfigHolder.init();
+    }
+
+    @Test
+    public void shouldGiveSameResultsAsFetchFlow() {
+
+        // then
+        for (final String rawQuery : QUERIES) {
+            final QueryPlan plan = planOf(rawQuery);
+            final JsonElement expected = new FetchFlow(plan).flow(document);
+            assertThat(SimplePathFlow.from(plan).flow(document)).named(rawQuery).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void shouldRecognizeSimplePaths() {
+
+        // then
+        assertThat(SimplePathFlow.isSimplePath(planOf("@house.members[0].name"))).isTrue();
+        assertThat(SimplePathFlow.isSimplePath(planOf("@house.members(name=Arya)"))).isFalse();
+        assertThat(SimplePathFlow.isSimplePath(planOf("@house.members[0:2]"))).isFalse();
+        assertThat(SimplePathFlow.isSimplePath(planOf("@house.words.count()"))).isFalse();
+    }
+
+    @Test(expected = IllegalJsonElementException.class)
+    public void shouldThrowException_WhenIndexedAttributeIsNotArray() {
+
+        // when
+        SimplePathFlow.from(planOf("@house.name[0]")).flow(document);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowException_WhenAttributeIsFetchedFromPrimitive() {
+
+        // when
+        SimplePathFlow.from(planOf("@house.name.first")).flow(document);
+    }
+
+    private static QueryPlan planOf(final String rawQuery) {
+        final Query query = Query.from(rawQuery);
+        query.next();
+        return QueryPlan.from(query);
+    }
+}
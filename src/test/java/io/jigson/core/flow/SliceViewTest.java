@@ -0,0 +1,93 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+
+import java.util.stream.IntStream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class SliceViewTest {
+
+    private static final int SIZE = 10;
+
+    @Test
+    public void shouldSelectSameElementsAsStreamOfIndices() {
+
+        // given
+        final JsonArray jsonArray = new JsonArray();
+        IntStream.range(0, SIZE).forEach(jsonArray::add);
+
+        // then
+        for (int start = 0; start <= SIZE + 1; ++start) {
+            for (int end = 0; end <= SIZE + 1; ++end) {
+                for (int step = 0; step <= SIZE + 1; ++step) {
+                    final String rawIndex = start + ":" + end + ":" + step;
+                    final Slice slice = Slice.from(rawIndex);
+                    assertThat(SliceView.of(jsonArray, slice).materialize()).named(rawIndex).isEqualTo(expected(jsonArray, slice));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldFetchAttributeFromEachElementOfSlice() {
+
+        // given
+        final JsonArray people = new JsonArray();
+        IntStream.range(0, SIZE).forEach(i -> {
+            final JsonObject person = new JsonObject();
+            person.addProperty("id", i);
+            people.add(person);
+        });
+        people.set(3, new JsonArray());
+        final JsonObject document = new JsonObject();
+        document.add("people", people);
+
+        // when
+        final JsonElement ids = new FetchFlow(planOf("@people[1:9:2].id")).flow(document);
+
+        // then
+        final JsonArray expected = new JsonArray();
+        expected.add(1);
+        expected.add(5);
+        expected.add(7);
+        assertThat(ids).isEqualTo(expected);
+    }
+
+    private static JsonArray expected(final JsonArray jsonArray, final Slice slice) {
+        final int endIndex = slice.getEndIndex(jsonArray.size());
+        final JsonArray accumulator = new JsonArray();
+        IntStream
+                .iterate(slice.getStartIndex(), i -> i + slice.getStep())
+                .limit(endIndex)
+                .filter(i -> i < endIndex)
+                .mapToObj(jsonArray::get)
+                .forEach(accumulator::add);
+        return accumulator;
+    }
+
+    private static QueryPlan planOf(final String rawQuery) {
+        final Query query = Query.from(rawQuery);
+        query.next();
+        return QueryPlan.from(query);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.flow;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import io.jigson.core.CompiledQuery;
+import io.jigson.core.Jigson;
+import io.jigson.core.JigsonConfig;
+import io.jigson.core.JigsonConfigHolder;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class StreamingFetchFlowTest {
+
+    private static final String EVENTS_JSON =
+            "{\"source\":\"web\",\"events\":[" +
+                    "{\"type\":\"click\",\"userId\":1,\"meta\":{\"page\":{\"name\":\"home\"}},\"tags\":[\"a\",\"b\"]}," +
+                    "{\"type\":\"view\",\"userId\":2,\"meta\":{\"page\":{\"name\":\"cart\"}},\"tags\":[\"c\"]}," +
+                    "\"broken\",null,[{\"type\":\"click\",\"userId\":3}]," +
+                    "{\"type\":\"click\",\"userId\":4,\"meta\":{\"page\":\"none\"},\"tags\":[]}," +
+                    "{\"type\":\"click\",\"meta\":{\"page\":{\"name\":\"home\"}},\"type\":\"view\"}]," +
+                    "\"total\":{\"clicks\":3}}";
+
+    private static final List<String> QUERIES = Arrays.asList(
+            "@source",
+            "@total.clicks",
+            "@missing.attribute",
+            "@events",
+            "@events.userId",
+            "@events.meta.page.name",
+            "@events[0].tags[1]",
+            "@events[5].meta.page",
+            "@events[1:3]",
+            "@events(type=click)",
+            "@events(type=click).userId",
+            "@events(type=click).meta.page.name",
+            "@events(type=click).userId.count()",
+            "@events(type=view||userId>=2).userId.sum()",
+            "@events.userId.max()",
+            "@events.meta.page(name=home)",
+            "@events(type=view).meta.page(name=home)",
+            "@events(type=xyz).userId"
+    );
+
+    private static final String PEOPLE_JSON =
+            "{\"people\":[{\"name\":\"A\",\"age\":30},{\"name\":\"B\"},{\"name\":\"C\",\"age\":{\"years\":5}}]}";
+
+    private static final List<String> MISSING_PROPERTY_QUERIES = Arrays.asList(
+            "@people(age>20)",
+            "@people(age>20).name",
+            "@people(age>20).name.count()"
+    );
+
+    private JsonElement document;
+
+    @Before
+    public void init() {
+        this.document = new JsonParser().parse(EVENTS_JSON);
+        JigsonConfigHolder.init();
+    }
+
+    @Test
+    public void shouldGiveSameResultsAsFetchFlow_WhenAllIfAnyMatchingStrategyIsUsed() {
+
+        // given
+        JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().allIfAnyMatching());
+
+        // when
+        // then
+        QUERIES.forEach(this::assertSameResult);
+    }
+
+    @Test
+    public void shouldGiveSameResultsAsFetchFlow_WhenOnlyMatchingStrategyIsUsed() {
+
+        // given
+        JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().onlyMatching());
+
+        // when
+        // then
+        QUERIES.forEach(this::assertSameResult);
+    }
+
+    @Test
+    public void shouldGiveSameResultsAsFetchFlow_WhenKeepMatchingAndPrimitivesStrategyIsUsed() {
+
+        // given
+        JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().keepMatchingAndPrimitives());
+
+        // when
+        // then
+        QUERIES.forEach(this::assertSameResult);
+    }
+
+    @Test
+    public void shouldKeepAllElementsUntested_WhenAnyMatchedAndAllIfAnyMatchingStrategyIsUsed() {
+
+        // given
+        JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().allIfAnyMatching());
+        final CompiledQuery query = Jigson.compile("@people(age>20).name");
+
+        // when
+        final JsonElement result = query.run(new StringReader(PEOPLE_JSON));
+
+        // then
+        assertThat(result).isEqualTo(new JsonParser().parse("[\"A\",\"B\",\"C\"]"));
+    }
+
+    @Test
+    public void shouldGiveSameOutcomeAsFetchFlow_WhenCriterionPropertyIsMissing() {
+
+        // given
+        final List<JigsonConfig> configs = Arrays.asList(
+                JigsonConfig.newInstance().filters().arrays().allIfAnyMatching(),
+                JigsonConfig.newInstance().filters().arrays().onlyMatching(),
+                JigsonConfig.newInstance().filters().arrays().keepMatchingAndPrimitives());
+        final JsonElement people = new JsonParser().parse(PEOPLE_JSON);
+
+        // when
+        // then
+        for (final JigsonConfig config : configs) {
+            JigsonConfigHolder.set(config);
+            for (final String rawQuery : MISSING_PROPERTY_QUERIES) {
+                final CompiledQuery query = Jigson.compile(rawQuery);
+                final String expected = outcome(() -> query.run(people));
+                final String actual = outcome(() -> query.run(new StringReader(PEOPLE_JSON)));
+                assertThat(actual).named(config.filters().arrays().strategy() + " " + rawQuery).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void shouldFetchNull_WhenDocumentIsEmpty() {
+
+        // given
+        final StreamingFetchFlow flow = new StreamingFetchFlow(plan("@events.userId"));
+
+        // when
+        final JsonElement result = flow.flow(new JsonReader(new StringReader(" ")));
+
+        // then
+        assertThat(result).isEqualTo(JsonNull.INSTANCE);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldThrowException_WhenIndexIsOutOfBounds() {
+
+        // given
+        final StreamingFetchFlow flow = new StreamingFetchFlow(plan("@events[10].userId"));
+
+        // when
+        flow.flow(new JsonReader(new StringReader(EVENTS_JSON)));
+    }
+
+    private void assertSameResult(final String rawQuery) {
+        final CompiledQuery query = Jigson.compile(rawQuery);
+        final JsonElement expected = query.run(document);
+        final JsonElement actual = query.run(new StringReader(EVENTS_JSON));
+        assertThat(actual).named(rawQuery).isEqualTo(expected);
+    }
+
+    /**
+     * @return result of given run or class of exception it threw
+     */
+    static String outcome(final Supplier<JsonElement> run) {
+        try {
+            return String.valueOf(run.get());
+        } catch (final RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private static QueryPlan plan(final String rawQuery) {
+        final Query query = Query.from(rawQuery);
+        query.next();
+        return QueryPlan.from(query);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.plugin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class NumericAggregateTest {
+
+    private final JsonParser parser = new JsonParser();
+
+    @Test
+    public void shouldAggregateSameAsBigDecimal_WhenScalesDiffer() {
+
+        // given
+        final JsonArray numbers = parser.parse("[1, \"2.50\", -0.125, 7, \"+3\", 1.0E2, 2.5]").getAsJsonArray();
+
+        // when
+        final NumericAggregate aggregate = NumericAggregate.ofPrimitives(numbers);
+
+        // then
+        assertThat(aggregate.count()).isEqualTo(7);
+        assertThat(aggregate.sum().toPlainString()).isEqualTo(new BigDecimal("115.875").toPlainString());
+        assertThat(aggregate.min().toString()).isEqualTo("-0.125");
+        assertThat(aggregate.max().toString()).isEqualTo("1.0E+2");
+    }
+
+    @Test
+    public void shouldKeepFirstOfEqualNumbers() {
+
+        // given
+        final JsonArray numbers = parser.parse("[2.0, 1.00, 2, 1]").getAsJsonArray();
+
+        // when
+        final NumericAggregate aggregate = NumericAggregate.ofPrimitives(numbers);
+
+        // then
+        assertThat(aggregate.min().toString()).isEqualTo("1.00");
+        assertThat(aggregate.max().toString()).isEqualTo("2.0");
+        assertThat(aggregate.sum().toString()).isEqualTo("6.00");
+    }
+
+    @Test
+    public void shouldPromoteToBigDecimal_WhenLongOverflows() {
+
+        // given
+        final JsonArray numbers = new JsonArray();
+        numbers.add(Long.MAX_VALUE);
+        numbers.add(Long.MAX_VALUE);
+        numbers.add(0.5);
+        numbers.add(Long.MIN_VALUE);
+
+        // when
+        final NumericAggregate aggregate = NumericAggregate.ofPrimitives(numbers);
+
+        // then
+        final BigDecimal expectedSum = BigDecimal.valueOf(Long.MAX_VALUE)
+                .add(BigDecimal.valueOf(Long.MAX_VALUE))
+                .add(new BigDecimal("0.5"))
+                .add(BigDecimal.valueOf(Long.MIN_VALUE));
+        assertThat(aggregate.sum()).isEqualTo(expectedSum);
+        assertThat(aggregate.min()).isEqualTo(BigDecimal.valueOf(Long.MIN_VALUE));
+        assertThat(aggregate.max()).isEqualTo(BigDecimal.valueOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldFlattenNestedArrays_AndSkipNulls() {
+
+        // given
+        final JsonArray numbers = parser.parse("[3, null, [1, [12345678901234567890123]], []]").getAsJsonArray();
+
+        // when
+        final NumericAggregate aggregate = NumericAggregate.ofNested(numbers, "min");
+
+        // then
+        assertThat(aggregate.count()).isEqualTo(3);
+        assertThat(aggregate.min()).isEqualTo(BigDecimal.ONE);
+        assertThat(aggregate.max()).isEqualTo(new BigDecimal("12345678901234567890123"));
+    }
+
+    @Test(expected = IllegalJsonElementException.class)
+    public void shouldThrowException_WhenNestedElementIsObject() {
+
+        // given
+        final JsonArray numbers = new JsonArray();
+        numbers.add(1);
+        numbers.add(new JsonObject());
+
+        // when
+        NumericAggregate.ofNested(numbers, "max");
+    }
+
+    @Test
+    public void shouldSumOnlyTopLevelNumbers_WhenAggregatingAll() {
+
+        // given
+        final JsonArray numbers = parser.parse("[4, null, [10, -2], 6]").getAsJsonArray();
+
+        // when
+        final NumericAggregate aggregate = NumericAggregate.ofAll(numbers, "stats");
+
+        // then
+        assertThat(aggregate.count()).isEqualTo(2);
+        assertThat(aggregate.sum()).isEqualTo(BigDecimal.TEN);
+        assertThat(aggregate.min()).isEqualTo(BigDecimal.valueOf(-2));
+        assertThat(aggregate.max()).isEqualTo(BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.core.plugin;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import io.jigson.core.CompiledQuery;
+import io.jigson.core.Jigson;
+import io.jigson.pipe.JigsonContext;
+import io.jigson.plugin.JsonPlugin;
+import io.jigson.plugin.PluginRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class PluginDispatcherTest {
+
+    private static final String SUMMARY_KEY = "summary";
+
+    private final JsonPlugin summaryPlugin = new JsonPlugin() {
+        @Override
+        public String getKey() {
+            return SUMMARY_KEY;
+        }
+
+        @Override
+        public JsonElement flow(final JsonElement input, final JigsonContext context) {
+            return new JsonPrimitive(SUMMARY_KEY);
+        }
+    };
+
+    @Before
+    public void init() {
+        Jigson.compile("@sum()");
+    }
+
+    @After
+    public void cleanUp() {
+        PluginRegistry.INSTANCE.deregister(SUMMARY_KEY);
+    }
+
+    @Test
+    public void shouldResolvePluginByExactKey() {
+
+        // given
+        PluginRegistry.INSTANCE.register(summaryPlugin);
+
+        // when
+        final JsonPlugin sum = PluginDispatcher.resolve("sum()").orElse(null);
+        final JsonPlugin summary = PluginDispatcher.resolve("summary()").orElse(null);
+
+        // then
+        assertThat(sum).isSameAs(SumPlugin.INSTANCE);
+        assertThat(summary).isSameAs(summaryPlugin);
+        assertThat(PluginDispatcher.resolve("su()").isPresent()).isFalse();
+        assertThat(PluginDispatcher.resolve("summaryOfAll()").isPresent()).isFalse();
+    }
+
+    @Test
+    public void shouldFindKey_WhenPluginIsCalled() {
+        assertThat(PluginDispatcher.findKey("sum()")).isEqualTo("sum");
+        assertThat(PluginDispatcher.findKey(" avg ( ) ")).isEqualTo("avg");
+        assertThat(PluginDispatcher.findKey("count")).isEqualTo("count");
+        assertThat(PluginDispatcher.findKey(null)).isEmpty();
+    }
+
+    @Test
+    public void shouldSeePluginRegisteredAfterQueryIsCompiled() {
+
+        // given
+        final CompiledQuery query = Jigson.compile("@summary()");
+
+        // when
+        PluginRegistry.INSTANCE.register(summaryPlugin);
+        final JsonElement result = query.run(new JsonPrimitive(1));
+
+        // then
+        assertThat(result.getAsString()).isEqualTo(SUMMARY_KEY);
+    }
+
+    @Test(expected = UnrecognizedPluginException.class)
+    public void shouldThrowException_WhenPluginIsDeregisteredAfterQueryIsCompiled() {
+
+        // given
+        PluginRegistry.INSTANCE.register(summaryPlugin);
+        final CompiledQuery query = Jigson.compile("@summary()");
+
+        // when
+        PluginRegistry.INSTANCE.deregister(SUMMARY_KEY);
+        query.run(new JsonPrimitive(1));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.expression.predicate;
+
+import com.google.gson.internal.LazilyParsedNumber;
+import io.jigson.expression.Comparison;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ComparisonPredicateTest {
+
+    @Test
+    public void shouldCompareLongs_WhenBothOperandsAreIntegers() {
+
+        // given
+        final ComparisonPredicate predicate = ComparisonPredicate.from(Comparison.GT, "25");
+
+        // when
+        final boolean isGreater = predicate.accept(26L);
+        final boolean isEqualGreater = predicate.accept(25L);
+
+        // then
+        assertThat(isGreater).isTrue();
+        assertThat(isEqualGreater).isFalse();
+    }
+
+    @Test
+    public void shouldCompareDecimalNumbersNatively() {
+
+        // given
+        final ComparisonPredicate predicate = ComparisonPredicate.from(Comparison.LTET, "25");
+
+        // when
+        final boolean isDoubleAccepted = predicate.acceptNumber(24.99);
+        final boolean isParsedNumberAccepted = predicate.acceptNumber(new LazilyParsedNumber("25.0000001"));
+        final boolean isNegativeNumberAccepted = predicate.acceptNumber(new LazilyParsedNumber("-3"));
+
+        // then
+        assertThat(isDoubleAccepted).isTrue();
+        assertThat(isParsedNumberAccepted).isFalse();
+        assertThat(isNegativeNumberAccepted).isTrue();
+    }
+
+    @Test
+    public void shouldFallBackToBigDecimal_WhenNumberDoesNotFitInLong() {
+
+        // given
+        final ComparisonPredicate predicate = ComparisonPredicate.from(Comparison.EQ, "12345678901234567890");
+
+        // when
+        final boolean isTextAccepted = predicate.accept("12345678901234567890");
+        final boolean isDecimalAccepted = predicate.accept(new BigDecimal("12345678901234567890.00"));
+        final boolean isLongAccepted = predicate.accept(1234567890123456789L);
+
+        // then
+        assertThat(isTextAccepted).isTrue();
+        assertThat(isDecimalAccepted).isTrue();
+        assertThat(isLongAccepted).isFalse();
+    }
+
+    @Test
+    public void shouldCompareTexts_WhenAnyOperandIsNotNumber() {
+
+        // given
+        final ComparisonPredicate predicate = ComparisonPredicate.from(Comparison.NEQ, "John");
+
+        // when
+        final boolean isSameTextAccepted = predicate.accept(" John ");
+        final boolean isNumberAccepted = predicate.accept(25L);
+
+        // then
+        assertThat(isSameTextAccepted).isFalse();
+        assertThat(isNumberAccepted).isTrue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowException_WhenOrderingTexts() {
+
+        // given
+        final ComparisonPredicate predicate = ComparisonPredicate.from(Comparison.GTET, "25");
+
+        // when
+        predicate.accept("John");
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.json.expression;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import io.jigson.core.JigsonConfigHolder;
+import io.jigson.json.pipe.IllegalCriteriaException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.jigson.utils.JsonUtils.getMapper;
+
+public class CriterionCompilerTest {
+
+    private static final String JSON = "{\"firstName\":\"John\",\"lastName\":\"Snow\", \"age\" : 25}";
+    private JsonObject jsonObject;
+
+    @Before
+    public void init() {
+        this.jsonObject = getMapper().fromJson(JSON, JsonObject.class);
+        JigsonConfigHolder.init();
+    }
+
+    @Test
+    public void shouldBindAndTighterThanOr() {
+
+        // given
+        final Criterion criterion = CriterionCompiler.compile("firstName=John||firstName=Jack&&age>30");
+
+        // when
+        final boolean isAccepted = criterion.accept(jsonObject);
+
+        // then
+        assertThat(isAccepted).isTrue();
+    }
+
+    @Test
+    public void shouldNotAccept_WhenNoneOfConjunctionsIsMet() {
+
+        // given
+        final Criterion criterion = CriterionCompiler.compile("firstName=Jack||lastName=Snow && age>30");
+
+        // when
+        final boolean isAccepted = criterion.accept(jsonObject);
+
+        // then
+        assertThat(isAccepted).isFalse();
+    }
+
+    @Test
+    public void shouldEvaluateSameCriterionManyTimes() {
+
+        // given
+        final Criterion criterion = CriterionCompiler.compile("age>=18&&lastName!=Lannister");
+        final JsonArray people =
+                getMapper().fromJson("[{\"lastName\":\"Snow\",\"age\":25},{\"lastName\":\"Stark\",\"age\":12}]", JsonArray.class);
+
+        // when
+        final boolean isFirstAccepted = criterion.accept(people.get(0));
+        final boolean isSecondAccepted = criterion.accept(people.get(1));
+
+        // then
+        assertThat(isFirstAccepted).isTrue();
+        assertThat(isSecondAccepted).isFalse();
+    }
+
+    @Test
+    public void shouldAcceptEverything_WhenCriterionIsBlank() {
+
+        // given
+        final Criterion criterion = CriterionCompiler.compile(" ");
+
+        // when
+        final boolean isAccepted = criterion.accept(jsonObject);
+
+        // then
+        assertThat(isAccepted).isTrue();
+    }
+
+    @Test(expected = IllegalCriteriaException.class)
+    public void shouldThrowException_WhenComparisonIsIncomplete() {
+
+        // given
+        final String criterion = "firstName=John&&age";
+
+        // when
+        CriterionCompiler.compile(criterion);
+    }
+}
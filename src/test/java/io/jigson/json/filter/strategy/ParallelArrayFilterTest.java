@@ -0,0 +1,142 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.json.filter.strategy;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.jigson.core.JigsonConfig;
+import io.jigson.core.JigsonConfigHolder;
+import io.jigson.json.expression.Criterion;
+import io.jigson.json.expression.CriterionCompiler;
+import io.jigson.json.filter.JsonArrayFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ParallelArrayFilterTest {
+
+    private static final int ARRAY_SIZE = 20000;
+    private static final int THRESHOLD = 1000;
+
+    private final AtomicInteger submittedChunks = new AtomicInteger();
+    private ExecutorService executorService;
+    private JsonArray jsonArray;
+
+    @Before
+    public void init() {
+        this.executorService = Executors.newFixedThreadPool(4);
+        this.jsonArray = new JsonArray();
+        for (int i = 0; i < ARRAY_SIZE; ++i) {
+            if (i % 7 == 0) {
+                jsonArray.add("primitive" + i);
+            } else {
+                final JsonObject person = new JsonObject();
+                person.addProperty("id", i);
+                person.addProperty("age", i % 100);
+                jsonArray.add(person);
+            }
+        }
+        JigsonConfigHolder.init();
+    }
+
+    @After
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void shouldGiveSameResultsAsSequentialFiltering_ForEveryStrategy() {
+
+        // given
+        final Criterion criterion = CriterionCompiler.compile("age>=90||id<10");
+
+        for (final JsonArrayFilter.Strategy strategy : JsonArrayFilter.Strategy.values()) {
+            final JsonArrayFilter filter = JsonFilterStrategyFactory.createJsonArrayFilter(strategy);
+
+            // when
+            JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().sequential());
+            final JsonElement sequentialResult = filter.filter(jsonArray, criterion);
+
+            JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().parallel(THRESHOLD, this::countingExecute));
+            final JsonElement parallelResult = filter.filter(jsonArray, criterion);
+
+            // then
+            assertThat(parallelResult).isEqualTo(sequentialResult);
+        }
+        assertThat(submittedChunks.get()).isGreaterThan(1);
+    }
+
+    @Test
+    public void shouldNotFilterConcurrently_WhenArrayIsSmallerThanThreshold() {
+
+        // given
+        JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().parallel(ARRAY_SIZE + 1, this::countingExecute));
+
+        // when
+        final JsonElement result = OnlyMatchingStrategy.INSTANCE.filter(jsonArray, "age>=90");
+
+        // then
+        assertThat(result.getAsJsonArray().size()).isGreaterThan(0);
+        assertThat(submittedChunks.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldStopAllWorkers_WhenAnyMatchIsFound() {
+
+        // given
+        final AtomicInteger evaluations = new AtomicInteger();
+        final Criterion criterion = element -> evaluations.incrementAndGet() > 0;
+        JigsonConfigHolder.set(JigsonConfig.newInstance().filters().arrays().parallel(THRESHOLD, executorService));
+
+        // when
+        final JsonElement result = AllIfAnyMatchingStrategy.INSTANCE.filter(jsonArray, criterion);
+
+        // then
+        assertThat(result).isSameAs(jsonArray);
+        assertThat(evaluations.get()).isLessThan(ARRAY_SIZE / 2);
+    }
+
+    @Test
+    public void shouldRunWorkersWithConfigOfCallingThread() {
+
+        // given
+        final Criterion criterion =
+                element -> JigsonConfigHolder.get().filters().arrays().strategy() == JsonArrayFilter.Strategy.ONLY_MATCHING;
+        final JigsonConfig config = JigsonConfig.newInstance().filters().arrays().onlyMatching();
+        config.filters().arrays().parallel(THRESHOLD, executorService);
+        JigsonConfigHolder.set(config);
+
+        // when
+        final JsonElement result = OnlyMatchingStrategy.INSTANCE.filter(jsonArray, criterion);
+
+        // then
+        assertThat(result.getAsJsonArray().size()).isEqualTo(ARRAY_SIZE - ARRAY_SIZE / 7 - 1);
+        assertThat(JigsonConfigHolder.get()).isSameAs(config);
+    }
+
+    private void countingExecute(final Runnable command) {
+        submittedChunks.incrementAndGet();
+        executorService.execute(command);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.json.lazy;
+
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class LazyDocumentTest {
+
+    private static final String PERSON_JSON =
+            " { \"name\" : \"Arya \\\"No One\\\" Stark\", \"tags\" : [ 1, \"[x]\", { }, [ ], null ] , " +
+                    "\"h\\u00e9\" : true, \"name\" : \"Arya\" } ";
+
+    @Test
+    public void shouldGiveLastAttributeOfGivenName() {
+
+        // given
+        final LazyDocument document = LazyDocument.parse(PERSON_JSON);
+
+        // when
+        final long name = document.field(document.root(), "name");
+
+        // then
+        assertThat(document.materialize(name).getAsString()).isEqualTo("Arya");
+        assertThat(document.field(document.root(), "surname")).isEqualTo(LazyDocument.MISSING);
+    }
+
+    @Test
+    public void shouldFindAttribute_WhenItsNameIsEscaped() {
+
+        // given
+        final LazyDocument document = LazyDocument.parse(PERSON_JSON);
+
+        // when
+        final long value = document.field(document.root(), "hé");
+
+        // then
+        assertThat(document.materialize(value).getAsBoolean()).isTrue();
+    }
+
+    @Test
+    public void shouldIterateElementsOfArray() {
+
+        // given
+        final LazyDocument document = LazyDocument.parse(PERSON_JSON);
+        final long tags = document.field(document.root(), "tags");
+        final List<String> elements = new ArrayList<>();
+
+        // when
+        document.forEachElement(tags, element -> elements.add(document.materialize(element).toString()));
+
+        // then
+        assertThat(elements).containsExactly("1", "\"[x]\"", "{}", "[]", "null").inOrder();
+        assertThat(document.isNull(document.element(tags, 4))).isTrue();
+        assertThat(document.isObject(document.element(tags, 2))).isTrue();
+    }
+
+    @Test
+    public void shouldMaterializeWholeDocument() {
+
+        // given
+        final LazyDocument document = LazyDocument.parse(PERSON_JSON);
+
+        // when
+        // then
+        assertThat(document.materialize()).isEqualTo(new JsonParser().parse(PERSON_JSON));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldThrowException_WhenIndexIsOutOfBounds() {
+
+        // given
+        final LazyDocument document = LazyDocument.parse("[1, 2]");
+
+        // when
+        document.element(document.root(), 2);
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void shouldThrowException_WhenBracketsAreUnbalanced() {
+
+        // when
+        LazyDocument.parse("{\"a\":[1,2}");
+    }
+}
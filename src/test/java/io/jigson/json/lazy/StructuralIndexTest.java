@@ -0,0 +1,101 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.json.lazy;
+
+import com.google.gson.JsonSyntaxException;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.apache.commons.lang3.StringUtils.repeat;
+
+public class StructuralIndexTest {
+
+    private static final String PERSON_JSON =
+            "{\"name\":\"Arya \\\"{No,One}\\\"\\\\\",\"tags\":[1,\"[x]\",{},[],null],\"h\\u00e9\":\"\\\\\\\"]\",\"age\":12}";
+
+    @Test
+    public void shouldFindStructuralBytesOutsideStrings_WhenStringsAreSkippedByWords() {
+
+        // then
+        for (int padding = 0; padding < Long.BYTES; ++padding) {
+            final String json = repeat(' ', padding) + PERSON_JSON + repeat(' ', padding);
+            final StructuralIndex index = StructuralIndex.build(json.getBytes(StandardCharsets.UTF_8));
+            assertThat(positionsOf(index)).named(json).isEqualTo(expectedPositions(json));
+        }
+    }
+
+    @Test
+    public void shouldFindQuotesAndBackslashesOfWord() {
+
+        // given
+        final long word = 0x7B5D3A2C225C417BL;
+
+        // when
+        final long found = StructuralIndex.findQuotesAndBackslashes(word);
+
+        // then
+        assertThat(found).isEqualTo(0x0000000080800000L);
+    }
+
+    @Test
+    public void shouldMatchClosingOfEachContainer() {
+
+        // given
+        final StructuralIndex index = StructuralIndex.build(PERSON_JSON.getBytes(StandardCharsets.UTF_8));
+
+        // when
+        final int closing = index.closing(0);
+
+        // then
+        assertThat(closing).isEqualTo(index.size() - 1);
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void shouldThrowException_WhenStringIsNotClosed() {
+
+        // when
+        StructuralIndex.build("{\"name\":\"Arya\\\"}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Integer> positionsOf(final StructuralIndex index) {
+        final List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < index.size(); ++i) {
+            positions.add(index.position(i));
+        }
+        return positions;
+    }
+
+    private static List<Integer> expectedPositions(final String json) {
+        final List<Integer> positions = new ArrayList<>();
+        boolean isInString = false;
+        for (int i = 0; i < json.length(); ++i) {
+            final char current = json.charAt(i);
+            if (isInString && current == '\\') {
+                ++i;
+            } else if (current == '"') {
+                isInString = !isInString;
+            } else if (!isInString && "{}[]:,".indexOf(current) >= 0) {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+}
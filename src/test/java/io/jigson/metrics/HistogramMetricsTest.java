@@ -0,0 +1,140 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.metrics;
+
+import com.google.gson.JsonObject;
+import io.jigson.core.Jigson;
+import io.jigson.core.JigsonConfig;
+import io.jigson.core.JigsonConfigHolder;
+import io.jigson.core.JigsonEngine;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.jigson.utils.JsonUtils.getMapper;
+
+public class HistogramMetricsTest {
+
+    private static final String PEOPLE_JSON =
+            "{\"people\":[{\"firstName\":\"John\",\"age\":25},{\"firstName\":\"Sansa\",\"age\":20},{\"firstName\":\"Arya\",\"age\":12}]}";
+
+    private JsonObject peopleObject;
+
+    @Before
+    public void init() {
+        this.peopleObject = getMapper().fromJson(PEOPLE_JSON, JsonObject.class);
+        JigsonConfigHolder.init();
+    }
+
+    @After
+    public void cleanUp() {
+        JigsonConfigHolder.init();
+    }
+
+    @Test
+    public void shouldRecordQueriesFiltersPluginsAndCache_WhenConfigured() {
+
+        // given
+        final HistogramMetrics metrics = HistogramMetrics.newInstance();
+        final JigsonConfig config = JigsonConfig.newInstance().cache().withCapacity(7).metrics().recordTo(metrics);
+        config.cache().queries().invalidateAll();
+        final String rawQuery = "@people(age>15).age.sum()";
+
+        // when
+        Jigson.from(peopleObject).withConfig(config).parse(rawQuery);
+        Jigson.from(peopleObject).withConfig(config).parse(rawQuery);
+
+        // then
+        assertThat(metrics.query(rawQuery).count()).isEqualTo(2);
+        assertThat(metrics.queries().keySet()).containsExactly(rawQuery);
+        assertThat(metrics.cacheMisses()).isEqualTo(1);
+        assertThat(metrics.cacheHits()).isEqualTo(1);
+        assertThat(metrics.compilations().count()).isEqualTo(1);
+        assertThat(metrics.filters().count()).isEqualTo(2);
+        assertThat(metrics.filteredElements()).isEqualTo(6);
+        assertThat(metrics.plugin("sum").count()).isEqualTo(2);
+        assertThat(metrics.failures()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRecordFailure_WhenQueryThrowsException() {
+
+        // given
+        final HistogramMetrics metrics = HistogramMetrics.newInstance();
+        final JigsonEngine engine = JigsonEngine.newInstance(JigsonConfig.newInstance().metrics().recordTo(metrics));
+
+        // when
+        try {
+            engine.on(peopleObject).parse("@people[10]");
+        } catch (final IndexOutOfBoundsException e) {
+            // expected
+        }
+
+        // then
+        assertThat(metrics.failures()).isEqualTo(1);
+        assertThat(metrics.query("@people[10]").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotRecordAnything_WhenMetricsAreNotConfigured() {
+
+        // given
+        final HistogramMetrics metrics = HistogramMetrics.newInstance();
+
+        // when
+        Jigson.from(peopleObject).parse("@people(age>15).age.sum()");
+
+        // then
+        assertThat(JigsonConfigHolder.get().metrics().recorder()).isSameAs(JigsonMetrics.NOOP);
+        assertThat(metrics.queries()).isEmpty();
+    }
+
+    @Test
+    public void shouldGivePercentilesWithBoundedError() {
+
+        // given
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        // when
+        for (long nanos = 1; nanos <= 100_000; ++nanos) {
+            histogram.record(nanos * 1000);
+        }
+
+        // then
+        assertThat(histogram.count()).isEqualTo(100_000);
+        assertThat((double) histogram.percentile(50.0, TimeUnit.MICROSECONDS)).isWithin(50_000 / 64.0).of(50_000);
+        assertThat((double) histogram.percentile(99.0, TimeUnit.MICROSECONDS)).isWithin(99_000 / 64.0).of(99_000);
+        assertThat((double) histogram.max(TimeUnit.MICROSECONDS)).isWithin(100_000 / 64.0).of(100_000);
+        assertThat(histogram.mean(TimeUnit.MICROSECONDS)).isWithin(0.01).of(50_000.5);
+    }
+
+    @Test
+    public void shouldMapEachValueIntoBucketContainingIt() {
+
+        // then
+        for (final long value : new long[]{0, 1, 127, 128, 129, 255, 256, 1000, 123_456_789L, Long.MAX_VALUE}) {
+            final int index = LatencyHistogram.indexOf(value);
+            assertThat(LatencyHistogram.highestValueOf(index)).isAtLeast(value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.highestValueOf(index - 1)).isLessThan(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.pipe;
+
+import com.google.common.io.CharStreams;
+import com.google.gson.JsonElement;
+import io.jigson.core.Jigson;
+import io.jigson.core.JigsonConfigHolder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class MappedSourceTest {
+
+    private static final String PEOPLE_JSON =
+            "{\"people\":[" + IntStream.range(0, 100)
+                    .mapToObj(index -> "{\"name\":\"Żółć " + index + " 日本 😀\",\"age\":" + index + "}")
+                    .collect(Collectors.joining(",")) + "]}";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void init() throws IOException {
+        JigsonConfigHolder.init();
+        this.file = folder.newFile("people.json").toPath();
+        Files.write(file, PEOPLE_JSON.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldDecodeWholeFile_WhenMultiByteCharactersCrossRegions() throws IOException {
+
+        // given
+        final String content;
+
+        // when
+        try (MappedSource source = MappedSource.map(file, 7); Reader reader = source.reader()) {
+            content = CharStreams.toString(reader);
+        }
+
+        // then
+        assertThat(content).isEqualTo(PEOPLE_JSON);
+    }
+
+    @Test
+    public void shouldDecodeSupplementaryCharacters_WhenReadCharByChar() throws IOException {
+
+        // given
+        final String json = "[\"😀\", 1, 2, 3]";
+        final Path emoji = folder.newFile("emoji.json").toPath();
+        Files.write(emoji, json.getBytes(StandardCharsets.UTF_8));
+        final StringBuilder content = new StringBuilder();
+
+        // when
+        try (MappedSource source = MappedSource.map(emoji); Reader reader = source.reader()) {
+            int character;
+            while ((character = reader.read()) != -1) {
+                content.append((char) character);
+            }
+        }
+
+        // then
+        assertThat(content.toString()).isEqualTo(json);
+    }
+
+    @Test
+    public void shouldDecodeWholeFile_WhenReadCharByCharAcrossRegions() throws IOException {
+
+        // given
+        final StringBuilder content = new StringBuilder();
+
+        // when
+        try (MappedSource source = MappedSource.map(file, 7); Reader reader = source.reader()) {
+            int character;
+            while ((character = reader.read()) != -1) {
+                content.append((char) character);
+            }
+        }
+
+        // then
+        assertThat(content.toString()).isEqualTo(PEOPLE_JSON);
+    }
+
+    @Test
+    public void shouldStreamQuery_WhenFileIsMappedAsManyRegions() {
+
+        // when
+        final JsonElement name;
+        try (MappedSource source = MappedSource.map(file, 64)) {
+            name = Jigson.compile("@people[42].name").run(source.reader());
+        }
+
+        // then
+        assertThat(name.getAsString()).isEqualTo("Żółć 42 日本 😀");
+    }
+
+    @Test
+    public void shouldRunQueryAgainstFile() {
+
+        // when
+        final JsonElement maxAge = Jigson.compile("@people.age.max()").run(file);
+
+        // then
+        assertThat(maxAge.getAsInt()).isEqualTo(99);
+    }
+
+    @Test
+    public void shouldGiveEmptyReader_WhenFileIsEmpty() throws IOException {
+
+        // given
+        final Path empty = folder.newFile("empty.json").toPath();
+
+        // when
+        try (MappedSource source = MappedSource.map(empty)) {
+
+            // then
+            assertThat(source.size()).isEqualTo(0);
+            assertThat(source.reader().read()).isEqualTo(-1);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.pipe;
+
+import com.google.gson.JsonElement;
+import io.jigson.core.Jigson;
+import io.jigson.core.JigsonConfigHolder;
+import io.jigson.plugin.JsonPlugin;
+import io.jigson.plugin.PluginRegistry;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class NdjsonSourceTest {
+
+    private static final int LINES = 500;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path input;
+
+    @Before
+    public void init() throws IOException {
+        JigsonConfigHolder.init();
+        final String lines = IntStream.range(0, LINES)
+                .mapToObj(index -> "{\"order\":{\"id\":" + index + ",\"total\":" + (index % 10) + "}}" + (index % 7 == 0 ? "\r\n\n" : "\n"))
+                .collect(Collectors.joining());
+        this.input = folder.newFile("orders.ndjson").toPath();
+        Files.write(input, (lines + "{\"order\":{\"id\":" + LINES + ",\"total\":0}}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldQueryEachLine_WhenChunksAreSmallerThanLines() {
+
+        // given
+        final NdjsonSource source = NdjsonSource.from(input).withChunkSize(16);
+
+        // when
+        final List<Integer> ids;
+        try (Stream<JsonElement> results = source.query(Jigson.compile("@order.id"))) {
+            ids = results.map(JsonElement::getAsInt).collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(ids).containsExactlyElementsIn(expectedIds()).inOrder();
+    }
+
+    @Test
+    public void shouldNotShareGivenContext_WhenQueriedInParallel() {
+
+        // given
+        final PluginRegistry pluginRegistry = PluginRegistry.layeredOver(PluginRegistry.INSTANCE);
+        pluginRegistry.register(new JsonPlugin() {
+            @Override
+            public String getKey() {
+                return "remember";
+            }
+
+            @Override
+            public JsonElement flow(final JsonElement input, final JigsonContext context) {
+                context.put("remembered", input);
+                return input;
+            }
+        });
+        final JigsonContext context = JigsonContext.newContext().withPluginRegistry(pluginRegistry);
+        final NdjsonSource source = NdjsonSource.from(input).withChunkSize(256).parallel(4);
+
+        // when
+        final List<Integer> ids;
+        try (Stream<JsonElement> results = source.query(Jigson.compile("@order.id.remember()"), context)) {
+            ids = results.map(JsonElement::getAsInt).collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(ids).containsExactlyElementsIn(expectedIds()).inOrder();
+        assertThat(context).isEmpty();
+    }
+
+    @Test
+    public void shouldKeepOrderOfLines_WhenQueriedInParallel() {
+
+        // given
+        final NdjsonSource source = NdjsonSource.from(input).withChunkSize(256).parallel(4);
+
+        // when
+        final List<Integer> ids;
+        try (Stream<JsonElement> results = source.query(Jigson.compile("@order.id"))) {
+            ids = results.map(JsonElement::getAsInt).collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(ids).containsExactlyElementsIn(expectedIds()).inOrder();
+    }
+
+    @Test
+    public void shouldGiveAllResults_WhenQueriedInParallelUnordered() {
+
+        // given
+        final NdjsonSource source = NdjsonSource.from(input).withChunkSize(256).parallel(4).unordered();
+
+        // when
+        final List<Integer> ids;
+        try (Stream<JsonElement> results = source.query(Jigson.compile("@order.id"))) {
+            ids = results.map(JsonElement::getAsInt).collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(ids).containsExactlyElementsIn(expectedIds());
+    }
+
+    @Test
+    public void shouldWriteMatchingDocuments() throws IOException {
+
+        // given
+        final Path output = folder.newFile("matched.ndjson").toPath();
+        final NdjsonSource source = NdjsonSource.from(input).parallel(2);
+
+        // when
+        final long written;
+        try (NdjsonWriter writer = NdjsonWriter.to(output);
+             Stream<JsonElement> matched = source.filter(Jigson.compile("$order.total = 9"))) {
+            written = writer.writeMatched(matched);
+        }
+
+        // then
+        final List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertThat(written).isEqualTo(LINES / 10);
+        assertThat(lines).hasSize(LINES / 10);
+        assertThat(lines.get(0)).isEqualTo("{\"order\":{\"id\":9,\"total\":9}}");
+    }
+
+    private static List<Integer> expectedIds() {
+        return IntStream.rangeClosed(0, LINES).boxed().collect(Collectors.toList());
+    }
+}
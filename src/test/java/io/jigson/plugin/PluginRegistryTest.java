@@ -0,0 +1,194 @@
+/*
+ *    Copyright 2018 Daniel Zarzeczny
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package io.jigson.plugin;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import io.jigson.core.Jigson;
+import io.jigson.core.plugin.UnrecognizedPluginException;
+import io.jigson.pipe.JigsonContext;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class PluginRegistryTest {
+
+    @Test
+    public void shouldKeepAllPlugins_WhenRegisteredConcurrently() throws Exception {
+
+        // given
+        final PluginRegistry registry = PluginRegistry.layeredOver(PluginRegistry.INSTANCE);
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        final int pluginsAmount = 1000;
+
+        // when
+        final List<Future<?>> registrations = new ArrayList<>();
+        IntStream
+                .range(0, pluginsAmount)
+                .forEach(i -> registrations.add(executorService.submit(() -> registry.register(constantPlugin("plugin" + i)))));
+        for (final Future<?> registration : registrations) {
+            registration.get();
+        }
+        executorService.shutdown();
+
+        // then
+        IntStream
+                .range(0, pluginsAmount)
+                .forEach(i -> assertThat(registry.get("plugin" + i)).isNotNull());
+        assertThat(PluginRegistry.INSTANCE.get("plugin0")).isNull();
+    }
+
+    @Test
+    public void shouldChangeVersion_OnlyWhenPluginsChange() {
+
+        // given
+        final PluginRegistry registry = PluginRegistry.layeredOver(PluginRegistry.INSTANCE);
+        final JsonPlugin plugin = constantPlugin("versioned");
+
+        // when
+        final int initialVersion = registry.version();
+        registry.register(plugin);
+        final int registeredVersion = registry.version();
+        registry.register(plugin);
+        registry.deregister("notRegistered");
+        final int unchangedVersion = registry.version();
+        registry.deregister("versioned");
+
+        // then
+        assertThat(registeredVersion).isNotEqualTo(initialVersion);
+        assertThat(unchangedVersion).isEqualTo(registeredVersion);
+        assertThat(registry.version()).isNotEqualTo(registeredVersion);
+        assertThat(registry.get("versioned")).isNull();
+    }
+
+    @Test
+    public void shouldFallBackToParentPlugins_WhenLayered() {
+
+        // given
+        final JsonPlugin parentPlugin = constantPlugin("parentOnly");
+        final JsonPlugin overridingPlugin = constantPlugin("parentOnly");
+        final PluginRegistry parent = PluginRegistry.layeredOver(PluginRegistry.INSTANCE);
+        final PluginRegistry child = PluginRegistry.layeredOver(parent);
+
+        // when
+        parent.register(parentPlugin);
+        final JsonPlugin inherited = child.get("parentOnly");
+        child.register(overridingPlugin);
+
+        // then
+        assertThat(inherited).isSameAs(parentPlugin);
+        assertThat(child.get("parentOnly")).isSameAs(overridingPlugin);
+        assertThat(parent.get("parentOnly")).isSameAs(parentPlugin);
+        assertThat(child.getPlugins()).containsAllIn(PluginRegistry.INSTANCE.getPlugins());
+    }
+
+    @Test
+    public void shouldHideParentPlugin_WhenDeregisteredInLayeredRegistry() {
+
+        // given
+        final PluginRegistry parent = PluginRegistry.layeredOver(PluginRegistry.INSTANCE);
+        parent.register(constantPlugin("inherited"));
+        final PluginRegistry child = PluginRegistry.layeredOver(parent);
+        final JsonPlugin replacement = constantPlugin("inherited");
+
+        // when
+        child.deregister("inherited");
+        final JsonPlugin hidden = child.get("inherited");
+        final boolean isListed = child.plugins().containsKey("inherited");
+        child.register(replacement);
+
+        // then
+        assertThat(hidden).isNull();
+        assertThat(isListed).isFalse();
+        assertThat(child.get("inherited")).isSameAs(replacement);
+        assertThat(parent.get("inherited")).isNotNull();
+        assertThat(parent.get("inherited")).isNotSameAs(replacement);
+    }
+
+    @Test
+    public void shouldDeregisterEmbeddedPlugin_OnlyWithinScopedJigson() {
+
+        // given
+        final String query = "@numbers.sum()";
+        final JsonElement numbers = new JsonParser().parse("{\"numbers\":[1,2,3]}");
+        final Jigson scopedJigson =
+                Jigson.from(numbers)
+                        .pluginsConfig()
+                        .scoped()
+                        .deregisterPlugin("sum")
+                        .and();
+
+        // when
+        // then
+        try {
+            scopedJigson.parse(query);
+            throw new AssertionError("Deregistered plugin must not be visible within scoped Jigson!");
+        } catch (final UnrecognizedPluginException e) {
+            // expected
+        }
+        assertThat(Jigson.from(numbers).parse(query).getAsInt()).isEqualTo(6);
+    }
+
+    @Test
+    public void shouldRunScopedPlugin_OnlyWithinItsJigson() {
+
+        // given
+        final String query = "@scopedConstant()";
+        final Jigson scopedJigson =
+                Jigson.from(JsonNull.INSTANCE)
+                        .pluginsConfig()
+                        .scoped()
+                        .registerPlugin(constantPlugin("scopedConstant"))
+                        .and();
+
+        // when
+        final JsonElement result = scopedJigson.parse(query);
+
+        // then
+        assertThat(result.getAsString()).isEqualTo("scopedConstant");
+        assertThat(PluginRegistry.INSTANCE.get("scopedConstant")).isNull();
+        try {
+            Jigson.from(JsonNull.INSTANCE).parse(query);
+            throw new AssertionError("Scoped plugin must not be visible globally!");
+        } catch (final UnrecognizedPluginException e) {
+            // expected
+        }
+    }
+
+    private static JsonPlugin constantPlugin(final String key) {
+        return new JsonPlugin() {
+            @Override
+            public String getKey() {
+                return key;
+            }
+
+            @Override
+            public JsonElement flow(final JsonElement input, final JigsonContext context) {
+                return new JsonPrimitive(key);
+            }
+        };
+    }
+}